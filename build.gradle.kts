@@ -2,6 +2,7 @@ plugins {
     id("java")
     id("maven-publish")
     id("java-library")
+    id("me.champeau.jmh") version "0.7.3"
 }
 
 group = "de.relaxogames"
@@ -33,6 +34,16 @@ dependencies {
     implementation("com.zaxxer:HikariCP:5.0.1")
 }
 
+jmh {
+    jmhVersion.set("1.37")
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    profilers.add("gc")
+    resultFormat.set("JSON")
+    resultsFile.set(layout.buildDirectory.file("reports/jmh/results-${project.version}.json"))
+}
+
 publishing {
     publications {
         create<MavenPublication>("lib") {
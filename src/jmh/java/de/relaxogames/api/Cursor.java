@@ -0,0 +1,18 @@
+package de.relaxogames.api;
+
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Every thread walks through the keys on its own, so the benchmarks do not measure a shared counter.
+ */
+@State(Scope.Thread)
+public class Cursor {
+
+    private int index;
+
+    int next(int bound) {
+        index = index + 1 == bound ? 0 : index + 1;
+        return index;
+    }
+}
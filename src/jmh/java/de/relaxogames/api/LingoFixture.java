@@ -0,0 +1,109 @@
+package de.relaxogames.api;
+
+import de.relaxogames.languages.Locale;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Creates a {@link Lingo} instance without database connection and
+ * realistic language files for the benchmarks.
+ * <p>
+ * The German and English files contain the given amount of keys. The messages use
+ * several color tags, a {@code <RESET>}, an unknown tag, legacy {@code &} codes
+ * and placeholders, like the messages of our game modes do.
+ * </p>
+ * <p>
+ * Every further locale is registered at runtime (e.g. {@code de_001}) and only translates every
+ * second key. Its chain {@code de_001>en_US} is set in {@code locale-fallbacks}, so half of its
+ * lookups are served by the merged fallback messages.
+ * </p>
+ */
+final class LingoFixture {
+
+    private static final String[] TEMPLATES = {
+            "<DodgerBlue3>{player} <RESET>hat <Red2>{coins} Coins <Green3>erhalten! &7(Rang: <DarkOrange>{rank}<RESET>)",
+            "<SkyBlue>Willkommen auf <DodgerBlue4>RelaxoGames<RESET>, <Chartreuse2>{player}<RESET>!",
+            "<Red3>Fehler: <RESET>Der Befehl <Unknown>/{0}</Unknown> konnte nicht ausgeführt werden.",
+            "&aRunde <DarkOrange>{0} <RESET>von <DarkOrange>{1} <RESET>- <Green3>{player} <RESET>führt mit <SkyBlue>{coins} <RESET>Punkten",
+            "Eine Nachricht ohne Farben, aber mit einem etwas längeren Text für die Scoreboard-Zeile."
+    };
+
+    final Path folder;
+    final Lingo lingo;
+    final String[] keys;
+    final Locale[] locales;
+
+    /**
+     * @param keyCount    the amount of keys of the German and English file
+     * @param localeCount the amount of locales including German and English
+     */
+    LingoFixture(int keyCount, int localeCount) throws IOException {
+        folder = Files.createTempDirectory("lingo-jmh");
+        keys = new String[keyCount];
+        for (int i = 0; i < keyCount; i++) {
+            keys[i] = "gamemode.section-" + (i % 50) + ".message-" + i;
+        }
+
+        String[] isos = new String[Math.max(2, localeCount)];
+        isos[0] = Locale.GERMAN.getISO();
+        isos[1] = Locale.ENGLISH.getISO();
+        StringBuilder fallbacks = new StringBuilder();
+        for (int i = 2; i < isos.length; i++) {
+            isos[i] = String.format("de_%03d", i - 1);
+            if (fallbacks.length() > 0) fallbacks.append(", ");
+            fallbacks.append(isos[i]).append('>').append(Locale.ENGLISH.getISO());
+        }
+
+        List<File> files = new ArrayList<>();
+        for (int l = 0; l < isos.length; l++) {
+            Path file = folder.resolve(isos[l] + ".yml");
+            StringBuilder yaml = new StringBuilder(keyCount * 128);
+            for (int i = l < 2 ? 0 : 1; i < keyCount; i += l < 2 ? 1 : 2) {
+                yaml.append(keys[i]).append(": '")
+                        .append(TEMPLATES[i % TEMPLATES.length].replace("'", "''"))
+                        .append(" [").append(isos[l]).append(']')
+                        .append("'\n");
+            }
+            Files.writeString(file, yaml, StandardCharsets.UTF_8);
+            files.add(file.toFile());
+        }
+
+        // The default properties with the fallback chains of the generated locales, the last value of a key wins
+        Path properties = folder.resolve("snorlaxlabs.properties");
+        try (InputStream defaults = LingoFixture.class.getClassLoader().getResourceAsStream("snorlaxlabs.properties")) {
+            if (defaults != null) Files.copy(defaults, properties);
+        }
+        Files.writeString(properties, "\nlocale-fallbacks = " + fallbacks + "\n", StandardCharsets.ISO_8859_1,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+
+        lingo = new Lingo(folder.toFile(), false);
+        lingo.loadMessages(files);
+        locales = new Locale[isos.length];
+        for (int l = 0; l < isos.length; l++) {
+            locales[l] = Locale.find(isos[l]);
+        }
+    }
+
+    /**
+     * @return a raw message as it is stored in the language files
+     */
+    static String rawMessage(int index) {
+        return TEMPLATES[index % TEMPLATES.length];
+    }
+
+    void delete() throws IOException {
+        try (Stream<Path> paths = Files.walk(folder)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package de.relaxogames.api;
+
+import de.relaxogames.languages.Locale;
+import net.kyori.adventure.text.Component;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the message lookup paths of {@link Lingo}, single threaded and
+ * with several threads reading at the same time (e.g. async chat threads).
+ * With more than two locales, the lookups also cover locales registered at
+ * runtime and messages served by their fallback chain.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class MessageLookupBenchmark {
+
+    private static final String[] ISO_CODES = {"de_DE", "en_US", "EN_us", "fr_FR"};
+
+    @Param({"5000"})
+    public int keyCount;
+
+    @Param({"2", "32"})
+    public int localeCount;
+
+    private LingoFixture fixture;
+    private Lingo lingo;
+    private String[] keys;
+    private Locale[] locales;
+
+    @Setup
+    public void setup() throws IOException {
+        fixture = new LingoFixture(keyCount, localeCount);
+        lingo = fixture.lingo;
+        keys = fixture.keys;
+        locales = fixture.locales;
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        fixture.delete();
+    }
+
+    private Locale locale(int index) {
+        return locales[index % locales.length];
+    }
+
+    @Benchmark
+    @SuppressWarnings("deprecation")
+    public String getMessage(Cursor cursor) {
+        int index = cursor.next(keys.length);
+        return lingo.getMessage(locale(index), keys[index]);
+    }
+
+    @Benchmark
+    @SuppressWarnings("deprecation")
+    public String getMessageMissing(Cursor cursor) {
+        int index = cursor.next(keys.length);
+        return lingo.getMessage(locale(index), "missing.key");
+    }
+
+    @Benchmark
+    public Component getSerialized(Cursor cursor) {
+        int index = cursor.next(keys.length);
+        return lingo.getSerialized(locale(index), keys[index]);
+    }
+
+    @Benchmark
+    public File getLocaleFile(Cursor cursor) {
+        return lingo.getLocaleFile(locale(cursor.next(locales.length)));
+    }
+
+    @Benchmark
+    public Locale convertStringToLanguage(Cursor cursor) {
+        return Locale.convertStringToLanguage(ISO_CODES[cursor.next(ISO_CODES.length)]);
+    }
+
+    @Benchmark
+    @Threads(4)
+    @SuppressWarnings("deprecation")
+    public String getMessageContended(Cursor cursor) {
+        int index = cursor.next(keys.length);
+        return lingo.getMessage(locale(index), keys[index]);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Component getSerializedContended(Cursor cursor) {
+        int index = cursor.next(keys.length);
+        return lingo.getSerialized(locale(index), keys[index]);
+    }
+}
@@ -0,0 +1,90 @@
+package de.relaxogames.api;
+
+import de.relaxogames.languages.Locale;
+import net.kyori.adventure.text.Component;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures parsing, formatting and legacy serialization of messages.
+ * Run with {@code -prof gc} (enabled by default in the Gradle {@code jmh} task) to see the allocation rate.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    @Param({"5000"})
+    public int keyCount;
+
+    private LingoFixture fixture;
+    private Lingo lingo;
+    private String[] keys;
+    private String[] rawMessages;
+    private Component[] components;
+    private final Map<String, Object> namedArgs = Map.of("player", "Seltex", "coins", 1250, "rank", "Legende");
+
+    @Setup
+    public void setup() throws IOException {
+        fixture = new LingoFixture(keyCount, 2);
+        lingo = fixture.lingo;
+        keys = fixture.keys;
+        rawMessages = new String[keys.length];
+        components = new Component[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            rawMessages[i] = LingoFixture.rawMessage(i);
+            components[i] = lingo.getSerialized(Locale.GERMAN, keys[i]);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        fixture.delete();
+    }
+
+    @Benchmark
+    public Component convertSerialize(Cursor cursor) {
+        return lingo.convertSerialize(rawMessages[cursor.next(rawMessages.length)]);
+    }
+
+    @Benchmark
+    public String convertMessage(Cursor cursor) {
+        return lingo.convertMessage(components[cursor.next(components.length)]);
+    }
+
+    @Benchmark
+    public String convertMessageOfSerialized(Cursor cursor) {
+        return lingo.convertMessage(lingo.getSerialized(Locale.GERMAN, keys[cursor.next(keys.length)]));
+    }
+
+    @Benchmark
+    public String getLegacy(Cursor cursor) {
+        return lingo.getLegacy(Locale.GERMAN, keys[cursor.next(keys.length)]);
+    }
+
+    @Benchmark
+    public String getLegacyNamed(Cursor cursor) {
+        return lingo.getLegacy(Locale.GERMAN, keys[cursor.next(keys.length)], namedArgs);
+    }
+
+    @Benchmark
+    public String formatNamed(Cursor cursor) {
+        return lingo.format(Locale.GERMAN, keys[cursor.next(keys.length)], namedArgs);
+    }
+
+    @Benchmark
+    public Component formatSerializedPositional(Cursor cursor) {
+        return lingo.formatSerialized(Locale.ENGLISH, keys[cursor.next(keys.length)], "lobby", 3, 5);
+    }
+}
@@ -0,0 +1,87 @@
+package de.relaxogames.store;
+
+import de.relaxogames.languages.Locale;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the locale path of the {@link LocaleStore} implementations that work without a database,
+ * so the cost of the store can be compared separately from the message lookup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class LocaleStoreBenchmark {
+
+    @Param({"memory", "file"})
+    public String store;
+
+    @Param({"10000"})
+    public int playerCount;
+
+    private Path folder;
+    private LocaleStore localeStore;
+    private UUID[] players;
+    private int index;
+
+    @Setup
+    public void setup() throws IOException {
+        folder = Files.createTempDirectory("lingo-jmh-store");
+        localeStore = store.equals("file")
+                ? new FileLocaleStore(folder.resolve("locales.log").toFile())
+                : new InMemoryLocaleStore();
+        players = new UUID[playerCount];
+        for (int i = 0; i < playerCount; i++) {
+            players[i] = UUID.randomUUID();
+            localeStore.fetchOrCreate(players[i]);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        localeStore.close();
+        File[] files = folder.toFile().listFiles();
+        if (files != null) {
+            for (File file : files) Files.deleteIfExists(file.toPath());
+        }
+        Files.deleteIfExists(folder);
+    }
+
+    private UUID next() {
+        index = index + 1 == players.length ? 0 : index + 1;
+        return players[index];
+    }
+
+    @Benchmark
+    public Locale fetchOrCreate() {
+        return localeStore.fetchOrCreate(next());
+    }
+
+    @Benchmark
+    public Locale cachedLocale() {
+        return localeStore.cachedLocale(next());
+    }
+
+    /**
+     * Alternates the language, so every call is a real change that has to be written.
+     */
+    @Benchmark
+    public void saveLocale() {
+        UUID uuid = next();
+        localeStore.saveLocale(uuid, localeStore.cachedLocale(uuid) == Locale.GERMAN ? Locale.ENGLISH : Locale.GERMAN);
+    }
+}
@@ -0,0 +1,79 @@
+package de.relaxogames.api;
+
+import de.relaxogames.api.interfaces.LingoUser;
+import de.relaxogames.languages.Locale;
+import net.kyori.adventure.text.Component;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * A message rendered for a group of users.
+ * <p>
+ * The users are grouped by their {@link Locale} and the message is rendered only once per
+ * locale, so the work of a broadcast depends on the number of languages, not on the number
+ * of users.
+ * </p>
+ *
+ * @param <U> the type of the users
+ * @see Lingo#broadcast(java.util.Collection, String, Object...)
+ */
+public final class Broadcast<U extends LingoUser> {
+
+    private final Map<Locale, List<U>> recipients;
+    private final Map<Locale, Component> components;
+
+    Broadcast(Map<Locale, List<U>> recipients, Map<Locale, Component> components) {
+        this.recipients = Collections.unmodifiableMap(recipients);
+        this.components = Collections.unmodifiableMap(components);
+    }
+
+    /**
+     * @return the users by their {@link Locale}
+     */
+    public Map<Locale, List<U>> recipients() {
+        return recipients;
+    }
+
+    /**
+     * @param locale the {@link Locale} of a group
+     * @return the rendered message of the group, or {@code null} if no user has this locale
+     */
+    public Component component(Locale locale) {
+        return components.get(locale);
+    }
+
+    /**
+     * @return the number of distinct locales, which is the number of times the message has been rendered
+     */
+    public int localeCount() {
+        return components.size();
+    }
+
+    /**
+     * Delivers the message to every user.
+     *
+     * @param sender sends the rendered message to a single user
+     */
+    public void sendTo(BiConsumer<? super U, Component> sender) {
+        for (Map.Entry<Locale, List<U>> group : recipients.entrySet()) {
+            Component component = components.get(group.getKey());
+            for (U user : group.getValue()) {
+                sender.accept(user, component);
+            }
+        }
+    }
+
+    /**
+     * Delivers the message once per locale, e.g. to send it with an audience of all users of the group.
+     *
+     * @param sender sends the rendered message to all users of a group
+     */
+    public void sendToGroups(BiConsumer<Component, ? super List<U>> sender) {
+        for (Map.Entry<Locale, List<U>> group : recipients.entrySet()) {
+            sender.accept(components.get(group.getKey()), group.getValue());
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package de.relaxogames.api;
+
+import de.relaxogames.Prefixes;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.format.TextColor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * A compact binary snapshot of a compiled language file.
+ * <p>
+ * Parsing the YAML, compiling every message into a {@link MessageTemplate} and rendering its
+ * legacy form produce the same result on every restart as long as the file does not change.
+ * The compiled templates, i.e. their segments, colors and legacy form, are therefore written
+ * to {@code .lingo-cache/<file>.bin} next to the language file. On the next start the snapshot
+ * is read in one go and the templates are restored from it, without parsing, compiling or
+ * rendering anything.
+ * </p>
+ * <p>
+ * A snapshot is only used if it was written for the current content of the language
+ * file. The modification time and size are compared first; if only the modification
+ * time differs (e.g. because the files are copied on every deployment), the CRC32 of
+ * the content decides.
+ * </p>
+ */
+final class BundleCache {
+
+    private static final int MAGIC = 0x4C494E47;
+    private static final int FORMAT_VERSION = 3;
+    private static final int NO_COLOR = -1;
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 8 + 8 + 4;
+    private static final String CACHE_FOLDER = ".lingo-cache";
+
+    private BundleCache() {
+    }
+
+    /**
+     * Reads the snapshot of a language file.
+     *
+     * @param langFile the language file
+     * @return the compiled templates by key, or {@code null} if there is no valid snapshot for the current file content
+     */
+    static Map<String, MessageTemplate> read(File langFile) {
+        Path cacheFile = cacheFile(langFile);
+        if (!Files.isRegularFile(cacheFile)) return null;
+        Map<String, MessageTemplate> templates;
+        long modified = langFile.lastModified();
+        byte[] content = null;
+        try (FileChannel channel = FileChannel.open(cacheFile, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining()) {
+                if (channel.read(header) < 0) return null;
+            }
+            header.flip();
+            if (header.getInt() != MAGIC || header.getInt() != FORMAT_VERSION) return null;
+            long lastModified = header.getLong();
+            long length = header.getLong();
+            long checksum = header.getLong();
+            int count = header.getInt();
+
+            if (length != langFile.length()) return null;
+            if (lastModified != modified) {
+                content = Files.readAllBytes(langFile.toPath());
+                if (content.length != length || checksum != checksum(content)) return null;
+            }
+
+            // Read onto the heap instead of mapping, a live mapping would keep the file from being replaced below
+            ByteBuffer body = ByteBuffer.allocate(Math.toIntExact(channel.size() - HEADER_SIZE));
+            while (body.hasRemaining()) {
+                if (channel.read(body) < 0) return null;
+            }
+            body.flip();
+            templates = new HashMap<>(count * 4 / 3 + 1);
+            for (int i = 0; i < count; i++) {
+                templates.put(LanguageFileLoader.internKey(readString(body)), readTemplate(body));
+            }
+        } catch (IOException | BufferUnderflowException | IllegalArgumentException | ArithmeticException e) {
+            return null;
+        }
+        // The content is unchanged, store the new modification time to skip the checksum next time
+        if (content != null) write(langFile, modified, content, templates);
+        return templates;
+    }
+
+    /**
+     * Writes the snapshot of a language file. Failures are logged and otherwise ignored,
+     * since the cache only speeds up the next start.
+     *
+     * @param langFile     the language file the templates were compiled from
+     * @param lastModified the modification time of the file, taken before its content was read
+     * @param content      the exact content the templates were compiled from
+     * @param templates    the compiled templates by key
+     */
+    static void write(File langFile, long lastModified, byte[] content, Map<String, MessageTemplate> templates) {
+        Path cacheFile = cacheFile(langFile);
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(HEADER_SIZE + templates.size() * 256);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(lastModified);
+            out.writeLong(content.length);
+            out.writeLong(checksum(content));
+            out.writeInt(templates.size());
+            for (Map.Entry<String, MessageTemplate> entry : templates.entrySet()) {
+                writeString(out, entry.getKey());
+                writeTemplate(out, entry.getValue());
+            }
+            out.flush();
+            ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+
+            Files.createDirectories(cacheFile.getParent());
+            Path temp = Files.createTempFile(cacheFile.getParent(), langFile.getName(), ".tmp");
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (buffer.hasRemaining()) channel.write(buffer);
+            }
+            try {
+                Files.move(temp, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, cacheFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            System.getLogger(Prefixes.logPrefix()).log(System.Logger.Level.WARNING,
+                    "Could not write the message cache of " + langFile.getName(), e);
+        }
+    }
+
+    /**
+     * Writes the raw message, the rendered legacy form and both segment lists of a template,
+     * so it can be restored without compiling or rendering it again.
+     */
+    private static void writeTemplate(DataOutputStream out, MessageTemplate template) throws IOException {
+        writeString(out, template.raw());
+        writeString(out, template.legacy());
+        List<MessageTemplate.Segment> segments = template.segments();
+        out.writeInt(segments.size());
+        for (MessageTemplate.Segment segment : segments) {
+            writeString(out, segment.text);
+            out.writeInt(segment.color == null ? NO_COLOR : segment.color.value());
+            out.writeBoolean(segment.placeholder != null);
+        }
+        List<MessageTemplate.Segment> rawSegments = template.rawSegments();
+        out.writeInt(rawSegments.size());
+        for (MessageTemplate.Segment segment : rawSegments) {
+            writeString(out, segment.text);
+            out.writeBoolean(segment.placeholder != null);
+        }
+    }
+
+    private static MessageTemplate readTemplate(ByteBuffer buffer) {
+        String raw = readString(buffer);
+        String legacy = readString(buffer);
+        int count = readCount(buffer);
+        List<MessageTemplate.Segment> segments = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String text = readString(buffer);
+            int color = buffer.getInt();
+            segments.add(segment(text, color == NO_COLOR ? null : color(color), buffer.get() != 0));
+        }
+        count = readCount(buffer);
+        List<MessageTemplate.Segment> rawSegments = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String text = readString(buffer);
+            rawSegments.add(segment(text, null, buffer.get() != 0));
+        }
+        return MessageTemplate.restore(raw, segments, rawSegments, legacy);
+    }
+
+    private static MessageTemplate.Segment segment(String text, TextColor color, boolean placeholder) {
+        MessageTemplate.Placeholder slot = null;
+        if (placeholder) {
+            if (text.length() < 2) throw new IllegalArgumentException("Corrupted message cache");
+            slot = MessageTemplate.Placeholder.parse(text.substring(1, text.length() - 1));
+        }
+        return new MessageTemplate.Segment(text, color, slot);
+    }
+
+    /**
+     * @return the named color of the value if there is one, so restored components equal freshly compiled ones
+     */
+    private static TextColor color(int value) {
+        NamedTextColor named = NamedTextColor.namedColor(value);
+        return named != null ? named : TextColor.color(value);
+    }
+
+    private static int readCount(ByteBuffer buffer) {
+        int count = buffer.getInt();
+        if (count < 0 || count > buffer.remaining()) throw new IllegalArgumentException("Corrupted message cache");
+        return count;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static Path cacheFile(File langFile) {
+        Path source = langFile.toPath().toAbsolutePath();
+        return source.resolveSibling(CACHE_FOLDER).resolve(langFile.getName() + ".bin");
+    }
+
+    private static long checksum(byte[] content) {
+        CRC32 crc = new CRC32();
+        crc.update(content);
+        return crc.getValue();
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) throw new IllegalArgumentException("Corrupted message cache");
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
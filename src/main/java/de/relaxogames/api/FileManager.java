@@ -19,7 +19,42 @@ public class FileManager {
         PROP_DB("slc-database", "DATABASE"),
         PROP_USER("slc-user", "USER"),
         PROP_PASSWORD("slc-password", "PASSWORD"),
+        PROP_PORT("slc-port", "3306"),
         PROP_TIMEOUT("connection-timeout-try", "3"),
+        PROP_RETRY_BACKOFF("retry-backoff", "100"),
+        PROP_RETRY_BACKOFF_MAX("retry-backoff-max", "2000"),
+        PROP_CIRCUIT_THRESHOLD("circuit-failure-threshold", "5"),
+        PROP_CIRCUIT_OPEN_TIME("circuit-open-time", "10000"),
+        PROP_POOL_SIZE("pool-max-size", "10"),
+        PROP_POOL_MIN_IDLE("pool-min-idle", "2"),
+        PROP_POOL_CONNECTION_TIMEOUT("pool-connection-timeout", "5000"),
+        PROP_POOL_IDLE_TIMEOUT("pool-idle-timeout", "600000"),
+        PROP_POOL_MAX_LIFETIME("pool-max-lifetime", "1800000"),
+        PROP_POOL_LEAK_DETECTION("pool-leak-detection", "0"),
+        PROP_SERVER_PREP_STMTS("server-prepared-statements", "true"),
+        PROP_STMT_CACHE("statement-cache", "true"),
+        PROP_STMT_CACHE_SIZE("statement-cache-size", "250"),
+        PROP_BULK_STMTS("bulk-statements", "true"),
+        PROP_FLUSH_INTERVAL("locale-flush-interval", "250"),
+        PROP_FLUSH_BATCH("locale-flush-batch-size", "200"),
+        PROP_CACHE_SIZE("locale-cache-size", "5000"),
+        PROP_CACHE_EXPIRE("locale-cache-expire", "30"),
+        PROP_LOCALE_STORE("locale-store", "sql"),
+        PROP_LOCALE_STORE_FILE("locale-store-file", "locales.log"),
+        PROP_LOCALE_SYNC("locale-sync", "false"),
+        PROP_LOCALE_SYNC_INTERVAL("locale-sync-interval", "1000"),
+        PROP_LOCALE_SYNC_LOOKBACK("locale-sync-lookback", "5000"),
+        PROP_ASYNC_THREADS("async-threads", "4"),
+        PROP_VIRTUAL_THREADS("async-virtual-threads", "true"),
+        PROP_HOT_RELOAD("hot-reload", "false"),
+        PROP_BUNDLE_CACHE("message-cache", "true"),
+        PROP_LAZY_LOADING("lazy-loading", "false"),
+        PROP_IDLE_UNLOAD("locale-idle-unload", "30"),
+        PROP_FALLBACKS("locale-fallbacks", ""),
+        PROP_LEGACY_CACHE("legacy-cache-size", "1000"),
+        PROP_METRICS("metrics", "false"),
+        PROP_METRICS_JMX("metrics-jmx", "true"),
+        PROP_METRICS_EXPORT("metrics-export-interval", "60"),
         PROP_VERSION("cfg-version", null);
 
         String field;
@@ -75,6 +110,69 @@ public class FileManager {
         return Boolean.parseBoolean(props.getProperty("debug-mode", "false"));
     }
 
+    /**
+     * @return true -- if changed language files should be reloaded automatically
+     */
+    protected boolean isHotReloading(){
+        return Boolean.parseBoolean(props.getProperty(PROPERTIES.PROP_HOT_RELOAD.getField(), PROPERTIES.PROP_HOT_RELOAD.getDefault()));
+    }
+
+    /**
+     * @return true -- if parsed language files should be cached in a binary snapshot for faster starts
+     */
+    protected boolean isCachingBundles(){
+        return Boolean.parseBoolean(props.getProperty(PROPERTIES.PROP_BUNDLE_CACHE.getField(), PROPERTIES.PROP_BUNDLE_CACHE.getDefault()));
+    }
+
+    /**
+     * @return true -- if the messages of a language should only be loaded when the language is requested for the first time
+     */
+    protected boolean isLazyLoading(){
+        return Boolean.parseBoolean(props.getProperty(PROPERTIES.PROP_LAZY_LOADING.getField(), PROPERTIES.PROP_LAZY_LOADING.getDefault()));
+    }
+
+    /**
+     * @return the minutes after which an unused language is unloaded again in lazy mode, 0 -- never
+     */
+    protected long localeIdleUnload(){
+        return Long.parseLong(props.getProperty(PROPERTIES.PROP_IDLE_UNLOAD.getField(), PROPERTIES.PROP_IDLE_UNLOAD.getDefault()));
+    }
+
+    /**
+     * @return the configured fallback chains, e.g. {@code de_AT>de_DE>en_US, en_GB>en_US}
+     */
+    protected String localeFallbacks(){
+        return props.getProperty(PROPERTIES.PROP_FALLBACKS.getField(), PROPERTIES.PROP_FALLBACKS.getDefault());
+    }
+
+    /**
+     * @return the maximum amount of formatted messages whose legacy form is cached, 0 -- none
+     */
+    protected int legacyCacheSize(){
+        return Integer.parseInt(props.getProperty(PROPERTIES.PROP_LEGACY_CACHE.getField(), PROPERTIES.PROP_LEGACY_CACHE.getDefault()));
+    }
+
+    /**
+     * @return true -- if lookups, render times, cache and database statistics should be recorded
+     */
+    protected boolean isCollectingMetrics(){
+        return Boolean.parseBoolean(props.getProperty(PROPERTIES.PROP_METRICS.getField(), PROPERTIES.PROP_METRICS.getDefault()));
+    }
+
+    /**
+     * @return true -- if the metrics should be available via JMX
+     */
+    protected boolean isExposingMetricsJmx(){
+        return Boolean.parseBoolean(props.getProperty(PROPERTIES.PROP_METRICS_JMX.getField(), PROPERTIES.PROP_METRICS_JMX.getDefault()));
+    }
+
+    /**
+     * @return the interval in seconds the metrics are passed to the registered exporters in, 0 -- never
+     */
+    protected long metricsExportInterval(){
+        return Long.parseLong(props.getProperty(PROPERTIES.PROP_METRICS_EXPORT.getField(), PROPERTIES.PROP_METRICS_EXPORT.getDefault()));
+    }
+
     /**
      * @return the host from the .properties file
      */
@@ -107,7 +205,189 @@ public class FileManager {
      * @return the amount the library tries to reconnect to the database
      */
     public int timeoutTryAmount(){
-        return Integer.parseInt(props.getProperty(PROPERTIES.PROP_TIMEOUT.getField()));
+        return Integer.parseInt(props.getProperty(PROPERTIES.PROP_TIMEOUT.getField(), PROPERTIES.PROP_TIMEOUT.getDefault()));
+    }
+
+    /**
+     * @return the milliseconds waited before the second try of a failed statement, doubled for every further try
+     */
+    public long retryBackoff(){
+        return Long.parseLong(props.getProperty(PROPERTIES.PROP_RETRY_BACKOFF.getField(), PROPERTIES.PROP_RETRY_BACKOFF.getDefault()));
+    }
+
+    /**
+     * @return the maximum milliseconds waited between two tries of a failed statement
+     */
+    public long retryBackoffMax(){
+        return Long.parseLong(props.getProperty(PROPERTIES.PROP_RETRY_BACKOFF_MAX.getField(), PROPERTIES.PROP_RETRY_BACKOFF_MAX.getDefault()));
+    }
+
+    /**
+     * @return the amount of consecutive connection failures after which database access is paused
+     */
+    public int circuitFailureThreshold(){
+        return Integer.parseInt(props.getProperty(PROPERTIES.PROP_CIRCUIT_THRESHOLD.getField(), PROPERTIES.PROP_CIRCUIT_THRESHOLD.getDefault()));
+    }
+
+    /**
+     * @return the milliseconds database access is paused before it is tried again
+     */
+    public long circuitOpenTime(){
+        return Long.parseLong(props.getProperty(PROPERTIES.PROP_CIRCUIT_OPEN_TIME.getField(), PROPERTIES.PROP_CIRCUIT_OPEN_TIME.getDefault()));
+    }
+
+    /**
+     * @return the port of the database from the .properties
+     */
+    public int port(){
+        return Integer.parseInt(props.getProperty(PROPERTIES.PROP_PORT.getField(), PROPERTIES.PROP_PORT.getDefault()));
+    }
+
+    /**
+     * @return the maximum amount of connections in the pool
+     */
+    public int poolMaxSize(){
+        return Integer.parseInt(props.getProperty(PROPERTIES.PROP_POOL_SIZE.getField(), PROPERTIES.PROP_POOL_SIZE.getDefault()));
+    }
+
+    /**
+     * @return the amount of idle connections the pool keeps open
+     */
+    public int poolMinIdle(){
+        return Integer.parseInt(props.getProperty(PROPERTIES.PROP_POOL_MIN_IDLE.getField(), PROPERTIES.PROP_POOL_MIN_IDLE.getDefault()));
+    }
+
+    /**
+     * @return the milliseconds a caller waits for a connection of the pool
+     */
+    public long poolConnectionTimeout(){
+        return Long.parseLong(props.getProperty(PROPERTIES.PROP_POOL_CONNECTION_TIMEOUT.getField(), PROPERTIES.PROP_POOL_CONNECTION_TIMEOUT.getDefault()));
+    }
+
+    /**
+     * @return the milliseconds after which an idle connection above the minimum is closed
+     */
+    public long poolIdleTimeout(){
+        return Long.parseLong(props.getProperty(PROPERTIES.PROP_POOL_IDLE_TIMEOUT.getField(), PROPERTIES.PROP_POOL_IDLE_TIMEOUT.getDefault()));
+    }
+
+    /**
+     * @return the maximum lifetime of a connection in milliseconds
+     */
+    public long poolMaxLifetime(){
+        return Long.parseLong(props.getProperty(PROPERTIES.PROP_POOL_MAX_LIFETIME.getField(), PROPERTIES.PROP_POOL_MAX_LIFETIME.getDefault()));
+    }
+
+    /**
+     * @return the milliseconds a connection may be borrowed before a possible leak is logged, 0 -- never
+     */
+    public long poolLeakDetection(){
+        return Long.parseLong(props.getProperty(PROPERTIES.PROP_POOL_LEAK_DETECTION.getField(), PROPERTIES.PROP_POOL_LEAK_DETECTION.getDefault()));
+    }
+
+    /**
+     * @return true -- if statements should be prepared on the database server instead of the driver
+     */
+    public boolean isUsingServerPrepStmts(){
+        return Boolean.parseBoolean(props.getProperty(PROPERTIES.PROP_SERVER_PREP_STMTS.getField(), PROPERTIES.PROP_SERVER_PREP_STMTS.getDefault()));
+    }
+
+    /**
+     * @return true -- if prepared statements should be cached per connection
+     */
+    public boolean isCachingStatements(){
+        return Boolean.parseBoolean(props.getProperty(PROPERTIES.PROP_STMT_CACHE.getField(), PROPERTIES.PROP_STMT_CACHE.getDefault()));
+    }
+
+    /**
+     * @return the maximum amount of prepared statements cached per connection
+     */
+    public int statementCacheSize(){
+        return Integer.parseInt(props.getProperty(PROPERTIES.PROP_STMT_CACHE_SIZE.getField(), PROPERTIES.PROP_STMT_CACHE_SIZE.getDefault()));
+    }
+
+    /**
+     * @return true -- if batches should be sent to the database in a single bulk command
+     */
+    public boolean isUsingBulkStatements(){
+        return Boolean.parseBoolean(props.getProperty(PROPERTIES.PROP_BULK_STMTS.getField(), PROPERTIES.PROP_BULK_STMTS.getDefault()));
+    }
+
+    /**
+     * @return the delay in milliseconds between two flushes of queued locale changes
+     */
+    public long localeFlushInterval(){
+        return Long.parseLong(props.getProperty(PROPERTIES.PROP_FLUSH_INTERVAL.getField(), PROPERTIES.PROP_FLUSH_INTERVAL.getDefault()));
+    }
+
+    /**
+     * @return the maximum amount of locale changes written in one database batch
+     */
+    public int localeFlushBatchSize(){
+        return Integer.parseInt(props.getProperty(PROPERTIES.PROP_FLUSH_BATCH.getField(), PROPERTIES.PROP_FLUSH_BATCH.getDefault()));
+    }
+
+    /**
+     * @return the maximum amount of players whose locale is kept in memory
+     */
+    public int localeCacheSize(){
+        return Integer.parseInt(props.getProperty(PROPERTIES.PROP_CACHE_SIZE.getField(), PROPERTIES.PROP_CACHE_SIZE.getDefault()));
+    }
+
+    /**
+     * @return the minutes after the last access at which a cached player locale expires
+     */
+    public long localeCacheExpire(){
+        return Long.parseLong(props.getProperty(PROPERTIES.PROP_CACHE_EXPIRE.getField(), PROPERTIES.PROP_CACHE_EXPIRE.getDefault()));
+    }
+
+    /**
+     * @return where the locales of the players are stored: sql, file or memory
+     */
+    protected String localeStore(){
+        return props.getProperty(PROPERTIES.PROP_LOCALE_STORE.getField(), PROPERTIES.PROP_LOCALE_STORE.getDefault());
+    }
+
+    /**
+     * @return the file the locales are stored in with the file store, relative to the plugin folder
+     */
+    protected String localeStoreFile(){
+        return props.getProperty(PROPERTIES.PROP_LOCALE_STORE_FILE.getField(), PROPERTIES.PROP_LOCALE_STORE_FILE.getDefault());
+    }
+
+    /**
+     * @return true -- if locale changes of other servers should be applied to the cached locales
+     */
+    public boolean isSyncingLocales(){
+        return Boolean.parseBoolean(props.getProperty(PROPERTIES.PROP_LOCALE_SYNC.getField(), PROPERTIES.PROP_LOCALE_SYNC.getDefault()));
+    }
+
+    /**
+     * @return the delay in milliseconds between two polls for locale changes of other servers
+     */
+    public long localeSyncInterval(){
+        return Long.parseLong(props.getProperty(PROPERTIES.PROP_LOCALE_SYNC_INTERVAL.getField(), PROPERTIES.PROP_LOCALE_SYNC_INTERVAL.getDefault()));
+    }
+
+    /**
+     * @return how many milliseconds every poll looks back for changes that have been committed late
+     */
+    public long localeSyncLookback(){
+        return Long.parseLong(props.getProperty(PROPERTIES.PROP_LOCALE_SYNC_LOOKBACK.getField(), PROPERTIES.PROP_LOCALE_SYNC_LOOKBACK.getDefault()));
+    }
+
+    /**
+     * @return the maximum amount of asynchronous database tasks running at the same time
+     */
+    public int asyncThreads(){
+        return Integer.parseInt(props.getProperty(PROPERTIES.PROP_ASYNC_THREADS.getField(), PROPERTIES.PROP_ASYNC_THREADS.getDefault()));
+    }
+
+    /**
+     * @return true -- if asynchronous database tasks should run on virtual threads (Java 21+)
+     */
+    public boolean useVirtualThreads(){
+        return Boolean.parseBoolean(props.getProperty(PROPERTIES.PROP_VIRTUAL_THREADS.getField(), PROPERTIES.PROP_VIRTUAL_THREADS.getDefault()));
     }
 
     /**
@@ -0,0 +1,224 @@
+package de.relaxogames.api;
+
+import de.relaxogames.exceptions.LanguageFileNull;
+import de.relaxogames.languages.Locale;
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
+
+/**
+ * Loads language files into {@link LocaleBundle}s.
+ * <p>
+ * Every file is parsed and compiled on its own task of a {@link ForkJoinPool},
+ * so loading many language bundles takes about as long as loading the largest one.
+ * </p>
+ * <p>
+ * Nested YAML sections are flattened into dotted keys. All keys are interned in a
+ * shared pool, so a key that exists in every locale is only held in memory once.
+ * Keys that are no longer used by any loaded bundle are removed from the pool with
+ * {@link #retainKeys(Collection)} whenever the language files are reloaded.
+ * </p>
+ */
+final class LanguageFileLoader {
+
+    private static final Map<String, String> KEYS = new ConcurrentHashMap<>();
+
+    /**
+     * A language tag like {@code de}, {@code de_DE}, {@code en-GB} or {@code zh_Hant_TW}.
+     */
+    private static final Pattern LANGUAGE_TAG = Pattern.compile("[a-zA-Z]{2,3}([_-]([a-zA-Z]{2}|[0-9]{3}|[a-zA-Z0-9]{4,8}))*");
+
+    private LanguageFileLoader() {
+    }
+
+    /**
+     * Loads all given files in parallel.
+     *
+     * @param files    the language files
+     * @param useCache true -- if the binary {@link BundleCache} should be used
+     * @return the loaded bundles in the order of the given files
+     * @throws LanguageFileNull if one of the files does not exist
+     */
+    static List<LocaleBundle> loadAll(List<File> files, boolean useCache) {
+        if (files.isEmpty()) return List.of();
+        if (files.size() == 1) return List.of(load(files.get(0), null, useCache));
+
+        int parallelism = Math.min(files.size(), Runtime.getRuntime().availableProcessors());
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            List<Callable<LocaleBundle>> tasks = new ArrayList<>(files.size());
+            for (File file : files) {
+                tasks.add(() -> load(file, null, useCache));
+            }
+            List<LocaleBundle> bundles = new ArrayList<>(files.size());
+            for (Future<LocaleBundle> future : pool.invokeAll(tasks)) {
+                bundles.add(future.get());
+            }
+            return bundles;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            throw new RuntimeException("Failed to load language files", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while loading language files", e);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Loads a single language file, compiles all of its messages and renders their legacy form. Templates of messages
+     * that did not change are taken over from the previous bundle, only new and changed
+     * messages are compiled.
+     * <p>
+     * Without a previous bundle, the templates are restored from a valid {@link BundleCache} snapshot
+     * instead of parsing the YAML and compiling the messages. A reload after a change always parses
+     * the YAML and renews the snapshot.
+     * </p>
+     *
+     * @param langFile the language file
+     * @param previous the currently loaded bundle of the file, or {@code null}
+     * @param useCache true -- if the binary {@link BundleCache} should be used
+     * @return the loaded {@link LocaleBundle}
+     * @throws LanguageFileNull if the file does not exist
+     */
+    static LocaleBundle load(File langFile, LocaleBundle previous, boolean useCache) {
+        Locale lng = localeOf(langFile);
+        Map<String, MessageTemplate> templates = useCache && previous == null ? BundleCache.read(langFile) : null;
+        if (templates != null) {
+            Map<String, String> messages = new HashMap<>(templates.size() * 4 / 3 + 1);
+            for (Map.Entry<String, MessageTemplate> entry : templates.entrySet()) {
+                messages.put(entry.getKey(), entry.getValue().raw());
+            }
+            return new LocaleBundle(lng, langFile, messages, templates);
+        }
+
+        // Taken before reading, so a change during the read renews the snapshot on the next start
+        long lastModified = langFile.lastModified();
+        byte[] content = read(langFile);
+        Map<String, String> messages = parse(content);
+        templates = new HashMap<>(messages.size() * 4 / 3 + 1);
+        for (Map.Entry<String, String> entry : messages.entrySet()) {
+            MessageTemplate template = previous == null ? null : previous.templates().get(entry.getKey());
+            if (template == null || !template.raw().equals(entry.getValue())) {
+                template = MessageTemplate.compile(entry.getValue());
+                template.legacy();
+            }
+            templates.put(entry.getKey(), template);
+        }
+        if (useCache) BundleCache.write(langFile, lastModified, content, templates);
+        return new LocaleBundle(lng, langFile, messages, templates);
+    }
+
+    /**
+     * @param langFile the language file
+     * @return the {@link Locale} of the file, resolved from its name (e.g. {@code de_DE.yml}) and registered if it is new.
+     * Files whose name is no language tag are resolved like a stored locale, so unknown names use the default language.
+     */
+    static Locale localeOf(File langFile) {
+        String name = languageName(langFile);
+        return LANGUAGE_TAG.matcher(name).matches() ? Locale.of(name) : Locale.convertStringToLanguage(name);
+    }
+
+    /**
+     * @param file a file of the language folder
+     * @return true -- if the file is named after a language tag, e.g. {@code fr_FR.yml}, but not {@code config.yml}
+     */
+    static boolean isLanguageFile(File file) {
+        return file.getName().endsWith(".yml") && LANGUAGE_TAG.matcher(languageName(file)).matches();
+    }
+
+    private static String languageName(File langFile) {
+        return langFile.getName().replace(".yml", "");
+    }
+
+    /**
+     * Reads the content of a language file.
+     *
+     * @param langFile the language file
+     * @return the content of the file
+     * @throws LanguageFileNull if the file does not exist
+     */
+    private static byte[] read(File langFile) {
+        try {
+            return Files.readAllBytes(langFile.toPath());
+        } catch (NoSuchFileException e) {
+            throw new LanguageFileNull(langFile.getName(), langFile.getPath(), "Language file not found!");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read language file " + langFile.getPath(), e);
+        }
+    }
+
+    /**
+     * Parses the YAML of a language file.
+     *
+     * @param content the content of the language file
+     * @return the messages by key, with {@code &} color codes already replaced
+     */
+    private static Map<String, String> parse(byte[] content) {
+        Map<String, Object> valuesMap = new Yaml().load(new ByteArrayInputStream(content));
+        Map<String, String> messages = new HashMap<>();
+        if (valuesMap != null) flatten("", valuesMap, messages);
+        return messages;
+    }
+
+    /**
+     * Adds all messages of a YAML section. Nested sections are flattened into dotted keys,
+     * e.g. {@code lobby: {join: ...}} becomes {@code lobby.join}.
+     */
+    private static void flatten(String prefix, Map<?, ?> section, Map<String, String> messages) {
+        for (Map.Entry<?, ?> entry : section.entrySet()) {
+            String key = prefix + entry.getKey();
+            Object value = entry.getValue();
+            if (value instanceof Map) {
+                flatten(key + ".", (Map<?, ?>) value, messages);
+                continue;
+            }
+            messages.put(internKey(key), (value instanceof String ? (String) value : String.valueOf(value)).replace('&', '§'));
+        }
+    }
+
+    /**
+     * Deduplicates message keys across all language files, so every locale shares the same key instance
+     * and its cached hash code.
+     *
+     * @param key the message key
+     * @return the shared instance of the key
+     */
+    static String internKey(String key) {
+        String shared = KEYS.putIfAbsent(key, key);
+        return shared == null ? key : shared;
+    }
+
+    /**
+     * Removes all keys from the shared pool that none of the given bundles uses anymore,
+     * e.g. keys that have been deleted from the language files.
+     *
+     * @param bundles all bundles that are currently in use
+     */
+    static void retainKeys(Collection<LocaleBundle> bundles) {
+        Set<String> used = new HashSet<>(KEYS.size() * 4 / 3 + 1);
+        for (LocaleBundle bundle : bundles) {
+            if (bundle.isLoaded()) used.addAll(bundle.messages().keySet());
+        }
+        KEYS.keySet().retainAll(used);
+    }
+}
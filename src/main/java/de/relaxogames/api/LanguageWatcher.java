@@ -0,0 +1,123 @@
+package de.relaxogames.api;
+
+import de.relaxogames.Prefixes;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches the folders of the loaded language files and reloads a file as soon as it changes.
+ * <p>
+ * Only the changed file is parsed again, see {@link Lingo#reloadFile(File)}. Editors usually
+ * write a file in several steps, so changes are collected for a short moment before the
+ * affected files are reloaded.
+ * </p>
+ * <p>
+ * If the files have been loaded from a language folder, language files that are created
+ * in it later are loaded as well, which registers their {@link de.relaxogames.languages.Locale}.
+ * </p>
+ */
+final class LanguageWatcher implements Runnable {
+
+    private static final long DEBOUNCE_MILLIS = 200;
+
+    private final Lingo lingo;
+    private final Map<Path, File> watchedFiles = new HashMap<>();
+    private final Path languageFolder;
+    private final WatchService watchService;
+    private final Thread thread;
+
+    /**
+     * @param lingo the {@link Lingo} instance the changed files are reloaded in
+     * @param files the language files to watch
+     * @param languageFolder the folder new language files are picked up from, or {@code null}
+     * @throws IOException if the folders of the files cannot be watched
+     */
+    LanguageWatcher(Lingo lingo, List<File> files, File languageFolder) throws IOException {
+        this.lingo = lingo;
+        this.languageFolder = languageFolder == null ? null : languageFolder.toPath().toAbsolutePath().normalize();
+        this.watchService = FileSystems.getDefault().newWatchService();
+        Set<Path> folders = new HashSet<>();
+        if (this.languageFolder != null) {
+            folders.add(this.languageFolder);
+            this.languageFolder.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        }
+        for (File file : files) {
+            Path path = file.toPath().toAbsolutePath().normalize();
+            watchedFiles.put(path, file);
+            if (folders.add(path.getParent())) {
+                path.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            }
+        }
+        this.thread = new Thread(this, "Lingo-LanguageWatcher");
+        this.thread.setDaemon(true);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    void close() {
+        try {
+            watchService.close();
+        } catch (IOException ignored) {
+        }
+        thread.interrupt();
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Set<File> changed = new LinkedHashSet<>();
+                collect(watchService.take(), changed);
+                WatchKey key;
+                while ((key = watchService.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    collect(key, changed);
+                }
+                for (File file : changed) {
+                    if (!file.isFile()) continue;
+                    try {
+                        lingo.reloadFile(file);
+                    } catch (RuntimeException e) {
+                        System.getLogger(Prefixes.logPrefix()).log(System.Logger.Level.WARNING,
+                                "Could not reload language file " + file.getName() + ", keeping the previous messages", e);
+                    }
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException ignored) {
+        }
+    }
+
+    private void collect(WatchKey key, Set<File> changed) {
+        Path folder = (Path) key.watchable();
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                changed.addAll(watchedFiles.values());
+                continue;
+            }
+            Path path = folder.resolve((Path) event.context());
+            File file = watchedFiles.get(path);
+            if (file == null && folder.equals(languageFolder) && LanguageFileLoader.isLanguageFile(path.toFile())) {
+                file = path.toFile();
+                watchedFiles.put(path, file);
+            }
+            if (file != null) changed.add(file);
+        }
+        key.reset();
+    }
+}
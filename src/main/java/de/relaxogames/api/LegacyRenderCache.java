@@ -0,0 +1,142 @@
+package de.relaxogames.api;
+
+import de.relaxogames.metrics.LingoMetrics;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded cache of formatted messages in their {@code §}-coded legacy form.
+ * <p>
+ * Static messages keep their legacy form in the {@link MessageTemplate}. Messages with
+ * placeholders depend on their arguments, so their legacy form is cached here by template
+ * and arguments instead. When the cache is full, the least recently used entry is evicted.
+ * </p>
+ * <p>
+ * Entries refer to the template they were rendered from, so reloaded messages never hit
+ * entries of their previous version. All methods are thread-safe.
+ * </p>
+ */
+final class LegacyRenderCache {
+
+    private final int maximumSize;
+    private final LinkedHashMap<Key, String> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param maximumSize the maximum amount of cached messages, 0 -- nothing is cached
+     */
+    LegacyRenderCache(int maximumSize) {
+        this.maximumSize = Math.max(0, maximumSize);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, String> eldest) {
+                return size() > LegacyRenderCache.this.maximumSize;
+            }
+        };
+    }
+
+    /**
+     * @param template the message
+     * @param args     the arguments, {@code args[0]} replaces {@code {0}}
+     * @return the formatted message in its legacy form
+     */
+    String render(MessageTemplate template, Object... args) {
+        String[] values = new String[args.length];
+        for (int i = 0; i < args.length; i++) values[i] = String.valueOf(args[i]);
+        return render(new Key(template, values, null), template, values, null);
+    }
+
+    /**
+     * @param template the message
+     * @param args     the arguments by placeholder name
+     * @return the formatted message in its legacy form
+     */
+    String render(MessageTemplate template, Map<String, ?> args) {
+        Map<String, String> values = new HashMap<>(args.size() * 4 / 3 + 1);
+        for (Map.Entry<String, ?> arg : args.entrySet()) values.put(arg.getKey(), String.valueOf(arg.getValue()));
+        return render(new Key(template, null, values), template, null, values);
+    }
+
+    private String render(Key key, MessageTemplate template, String[] positional, Map<String, String> named) {
+        if (maximumSize > 0) {
+            String cached;
+            synchronized (entries) {
+                cached = entries.get(key);
+            }
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+        }
+        misses.increment();
+        long start = LingoMetrics.start();
+        String rendered = MessageTemplate.LEGACY.serialize(positional != null
+                ? template.formatComponent((Object[]) positional)
+                : template.formatComponent(named));
+        LingoMetrics.recordRender(LingoMetrics.Render.LEGACY, start);
+        if (maximumSize > 0) {
+            synchronized (entries) {
+                entries.put(key, rendered);
+            }
+        }
+        return rendered;
+    }
+
+    void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    long hitCount() {
+        return hits.sum();
+    }
+
+    long missCount() {
+        return misses.sum();
+    }
+
+    /**
+     * A template together with the string values of its arguments.
+     * Templates are compared by identity, a reloaded message is a new template.
+     */
+    private static final class Key {
+        private final MessageTemplate template;
+        private final String[] positional;
+        private final Map<String, String> named;
+        private final int hash;
+
+        private Key(MessageTemplate template, String[] positional, Map<String, String> named) {
+            this.template = template;
+            this.positional = positional;
+            this.named = named;
+            this.hash = 31 * (31 * System.identityHashCode(template) + Arrays.hashCode(positional)) + Objects.hashCode(named);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return template == key.template && Arrays.equals(positional, key.positional) && Objects.equals(named, key.named);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -1,26 +1,41 @@
 package de.relaxogames.api;
 
+import de.relaxogames.Prefixes;
+import de.relaxogames.api.interfaces.LingoUser;
 import de.relaxogames.exceptions.LanguageFileNull;
 import de.relaxogames.exceptions.LanguageNotFound;
-import de.relaxogames.exceptions.MessageNotFound;
 import de.relaxogames.languages.Locale;
 import de.relaxogames.languages.ServerColors;
+import de.relaxogames.metrics.LingoMetrics;
+import de.relaxogames.metrics.LocaleCounter;
 import de.relaxogames.sql.LingoSQL;
 import de.relaxogames.sql.SQLConnector;
+import de.relaxogames.sql.SQLExecutor;
+import de.relaxogames.sql.SQLLocaleStore;
+import de.relaxogames.store.FileLocaleStore;
+import de.relaxogames.store.InMemoryLocaleStore;
+import de.relaxogames.store.LocaleStore;
 import net.kyori.adventure.text.Component;
-import net.kyori.adventure.text.TextComponent;
-import net.kyori.adventure.text.format.NamedTextColor;
 import net.kyori.adventure.text.format.TextColor;
 import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
-import org.yaml.snakeyaml.Yaml;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
-import java.io.InputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 /**
  * @author Simon (Seltex) Stier
@@ -30,7 +45,7 @@ import java.util.Map;
  */
 public class Lingo {
 
-    private static final int version = 2;
+    private static final int version = 15;
 
     private static volatile Lingo instance;
     private FileManager fileManager;
@@ -38,25 +53,90 @@ public class Lingo {
 
     private File apiHandledFolder;
     List<File> fileList;
-    private static HashMap<Locale, File> lingoList;
-    private static HashMap<String, String> messages;
-    private static HashMap<Locale, HashMap<String , String>> messageList;
+    private File languageFolder;
+    private static volatile MessageRegistry registry = MessageRegistry.EMPTY;
+    private LanguageWatcher languageWatcher;
+    private ScheduledExecutorService idleUnloader;
+
+    private static final int MAX_MISSING_TEMPLATES = 1024;
+    private final LocaleCounter missingKeys = new LocaleCounter();
+    private final Map<String, MessageTemplate> missingTemplates = new ConcurrentHashMap<>();
+    private final LegacyRenderCache legacyCache;
+    private volatile LocaleStore localeStore;
 
     /**
      * Use this constructor to create your LingoAPI instance
      * @param pluginFolder is your pluginfolder. This is needed for the Lingo configuration file.
      */
     public Lingo(File pluginFolder) {
+        this(pluginFolder, true);
+    }
+
+    /**
+     * @param pluginFolder is your pluginfolder. This is needed for the Lingo configuration file.
+     * @param connectDatabase false -- if only the language files should be handled, e.g. in benchmarks.
+     *                        Locales are then kept in an {@link InMemoryLocaleStore}.
+     */
+    Lingo(File pluginFolder, boolean connectDatabase) {
         apiHandledFolder = pluginFolder;
         instance = this;
         fileManager = new FileManager();
         fileManager.generateFiles();
-        messageList = new HashMap<>();
-        lingoList = new HashMap<>();
         componentSerializer = LegacyComponentSerializer.legacySection();
+        legacyCache = new LegacyRenderCache(fileManager.legacyCacheSize());
+        LingoMetrics.configure(fileManager.isCollectingMetrics(), fileManager.isExposingMetricsJmx(), fileManager.metricsExportInterval());
 
-        SQLConnector.connect();
-        LingoSQL.initialize();
+        if (!connectDatabase) {
+            localeStore = new InMemoryLocaleStore();
+            return;
+        }
+        SQLExecutor.initialize(fileManager);
+        localeStore = createLocaleStore();
+    }
+
+    /**
+     * Creates the {@link LocaleStore} configured with {@code locale-store}.
+     * Only the {@code sql} store connects to the database.
+     */
+    private LocaleStore createLocaleStore() {
+        String type = fileManager.localeStore().trim().toLowerCase(java.util.Locale.ROOT);
+        switch (type) {
+            case "memory":
+                return new InMemoryLocaleStore();
+            case "file":
+                File file = new File(apiHandledFolder, fileManager.localeStoreFile());
+                try {
+                    return new FileLocaleStore(file);
+                } catch (IOException e) {
+                    throw new RuntimeException("Failed to open the locale store " + file.getPath(), e);
+                }
+            default:
+                if (!type.equals("sql")) {
+                    System.getLogger(Prefixes.logPrefix()).log(System.Logger.Level.WARNING,
+                            "Unknown locale-store " + type + ", using sql instead");
+                }
+                SQLConnector.connect();
+                LingoSQL.initialize();
+                return new SQLLocaleStore();
+        }
+    }
+
+    /**
+     * @return the {@link LocaleStore} the locales of the players are stored in
+     */
+    public LocaleStore getLocaleStore() {
+        return localeStore;
+    }
+
+    /**
+     * Replaces the {@link LocaleStore}, e.g. with a custom implementation. The previous store is closed,
+     * all players created without an explicit store use the new store from now on.
+     * @param localeStore the new store
+     */
+    public void setLocaleStore(LocaleStore localeStore) {
+        LocaleStore previous = this.localeStore;
+        this.localeStore = localeStore;
+        if (previous != null && previous != localeStore) previous.close();
     }
 
     /**
@@ -67,96 +147,389 @@ public class Lingo {
     }
 
     /**
-     * This method is called if you load your message files on server start
+     * Loads every language file ({@code <ISO-Short>.yml}, e.g. {@code fr_FR.yml}) of a folder.
+     * Languages without a built-in {@link Locale} are registered on the fly. With {@code hot-reload} enabled,
+     * language files that are added to the folder later are loaded as well. Other {@code .yml} files, e.g.
+     * {@code config.yml}, are ignored.
+     * @param languageFolder the folder containing the language files
+     */
+    public void loadMessages(File languageFolder) {
+        File[] files = languageFolder.listFiles(LanguageFileLoader::isLanguageFile);
+        if (files == null) throw new LanguageFileNull(languageFolder.getName(), languageFolder.getPath(), "Language folder not found!");
+        Arrays.sort(files);
+        load(new ArrayList<>(Arrays.asList(files)), languageFolder);
+    }
+
+    /**
+     * This method is called if you load your message files on server start.
+     * Messages of previously loaded files stay available unless a file of the same language is loaded again.
      * @param fileList are all language files combined in an {@link java.util.ArrayList}
      */
     public void loadMessages(List<File> fileList) {
+        load(fileList, null);
+    }
+
+    private void load(List<File> fileList, File languageFolder) {
         this.fileList = fileList;
+        this.languageFolder = languageFolder;
+        publish(true, fileList);
+        if (fileManager.isHotReloading()) startWatching();
+        startIdleUnloading();
+    }
+
+    /**
+     * Loads the given files and publishes them as the new registry.
+     * Readers keep using the previous registry until the new one is completely built.
+     * @param merge true -- if the bundles of the current registry should be kept
+     */
+    private synchronized void publish(boolean merge, List<File> fileList) {
+        // The languages of the files have to be known before the fallback chains are resolved
+        for (File langFile : fileList) LanguageFileLoader.localeOf(langFile);
+        MessageRegistry base = (merge ? registry : MessageRegistry.EMPTY).withFallbacks(fallbackChains());
+        missingTemplates.clear();
+        legacyCache.invalidateAll();
         boolean debug = fileManager.isDebugging();
-        for(File langFile : fileList){
-            String lngFileName = langFile.getName().replace(".yml", "");
-            Locale lng = Locale.convertStringToLanguage(lngFileName);
-            lingoList.put(lng, langFile);
-            if (lngFileName.equalsIgnoreCase(Locale.system_default.getISO())){
-                lingoList.put(Locale.system_default, langFile);
-                if (debug)System.out.println("File: [" + langFile.getName() + "] \t / \tPath: [" + langFile.getPath() + "] wurde als Fallback-Language gesetzt!");
+        if (fileManager.isLazyLoading()) {
+            Map<Locale, LocaleBundle> bundles = new HashMap<>();
+            for (File langFile : fileList) {
+                putBundle(bundles, LocaleBundle.unloaded(LanguageFileLoader.localeOf(langFile), langFile));
             }
-            Yaml cfg = new Yaml();
-            InputStream is = null;
-            try {
-                is = new FileInputStream(langFile.getAbsolutePath());
-            } catch (FileNotFoundException e) {
-                throw new LanguageFileNull(langFile.getName(), langFile.getPath(), "Language file not found!");
+            registry = base.with(bundles);
+            LanguageFileLoader.retainKeys(registry.bundles().values());
+            System.getLogger(Prefixes.logPrefix()).log(System.Logger.Level.INFO,
+                    "Indexed " + fileList.size() + " language files, messages are loaded on first use");
+            return;
+        }
+
+        long start = System.nanoTime();
+        List<LocaleBundle> loaded = LanguageFileLoader.loadAll(fileList, fileManager.isCachingBundles());
+        long loadMillis = (System.nanoTime() - start) / 1_000_000;
+
+        Map<Locale, LocaleBundle> bundles = new HashMap<>();
+        int keyCount = 0;
+        for (LocaleBundle bundle : loaded) {
+            File langFile = bundle.file();
+            keyCount += bundle.messages().size();
+            if (putBundle(bundles, bundle) && debug){
+                System.out.println("File: [" + langFile.getName() + "] \t / \tPath: [" + langFile.getPath() + "] wurde als Fallback-Language gesetzt!");
             }
-            HashMap<String, Object> valuesMap = cfg.load(is);
-            messages = new HashMap<>();
             if (debug){
                 System.out.println("############################ [LINGO-DEBUG] ############################");
                 System.out.println("File: [" + langFile.getName() + "] \t / \tPath: [" + langFile.getPath() + "]");
+                for (Map.Entry<String, String> message : bundle.messages().entrySet()){
+                    System.out.println(message.getKey() + "\t » \t" + message.getValue());
+                }
+                System.out.println("############################ " + langFile.getName() + " finished ############################");
             }
-            for (String key : valuesMap.keySet()){
-                messages.put(key, String.valueOf(valuesMap.get(key)).replace("&", "§"));
-                if (debug)System.out.println(key + "\t » \t" + String.valueOf(valuesMap.get(key)).replace("&", "§"));
+        }
+        registry = base.with(bundles);
+        LanguageFileLoader.retainKeys(registry.bundles().values());
+        System.getLogger(Prefixes.logPrefix()).log(System.Logger.Level.INFO,
+                "Loaded " + loaded.size() + " language files with " + keyCount + " messages in " + loadMillis + " ms");
+    }
+
+    /**
+     * Parses the {@code locale-fallbacks} chains. Only languages with a loaded language file are used,
+     * unknown languages are skipped, so players with such a language keep the default language.
+     * @return the configured fallbacks by their {@link Locale}
+     */
+    private Map<Locale, List<Locale>> fallbackChains() {
+        Map<Locale, List<Locale>> chains = new HashMap<>();
+        for (String chain : fileManager.localeFallbacks().split(",")) {
+            if (chain.isBlank()) continue;
+            String[] isos = chain.split(">");
+            Locale locale = knownLocale(isos[0]);
+            if (locale == null) continue;
+            List<Locale> fallbacks = new ArrayList<>();
+            for (int i = 1; i < isos.length; i++) {
+                Locale fallback = knownLocale(isos[i]);
+                if (fallback != null) fallbacks.add(fallback);
             }
-            if (debug)System.out.println("############################ " + langFile.getName() + " finished ############################");
-            messageList.put(lng, messages);
+            chains.put(locale, fallbacks);
+        }
+        return chains;
+    }
+
+    /**
+     * @return the {@link Locale} of an ISO-Short of the {@code locale-fallbacks}, or {@code null} if there is no language file for it
+     */
+    private static Locale knownLocale(String iso) {
+        if (iso.isBlank()) return null;
+        Locale locale = Locale.find(iso.trim());
+        if (locale == null) {
+            System.getLogger(Prefixes.logPrefix()).log(System.Logger.Level.WARNING,
+                    "There is no language file for " + iso.trim() + " of the locale-fallbacks, skipping it");
         }
+        return locale;
+    }
+
+    /**
+     * Adds a bundle by its locale and, if it is the file of the default language, also as {@link Locale#system_default}.
+     * @return true -- if the bundle has been set as fallback language
+     */
+    private static boolean putBundle(Map<Locale, LocaleBundle> bundles, LocaleBundle bundle) {
+        bundles.put(bundle.locale(), bundle);
+        if (!bundle.file().getName().replace(".yml", "").equalsIgnoreCase(Locale.system_default.getISO())) return false;
+        bundles.put(Locale.system_default, bundle);
+        return true;
+    }
+
+    /**
+     * Returns the bundle of a locale and loads its messages first if lazy loading has not done that yet.
+     * @return the loaded bundle, or {@code null} if there is no language file for the locale
+     */
+    private LocaleBundle bundle(Locale locale) {
+        LingoMetrics.recordLookup(locale);
+        LocaleBundle bundle = registry.bundle(locale);
+        if (bundle == null) return null;
+        if (!bundle.isLoaded()) bundle = materialize(locale);
+        if (bundle != null) bundle.touch();
+        return bundle;
+    }
+
+    /**
+     * Loads the messages of a lazily indexed locale and publishes them.
+     * Concurrent requests for the same locale wait for the first one instead of parsing the file again.
+     */
+    private synchronized LocaleBundle materialize(Locale locale) {
+        MessageRegistry current = registry;
+        LocaleBundle bundle = current.bundle(locale);
+        if (bundle == null || bundle.isLoaded()) return bundle;
+
+        // The fallback languages are merged into the effective messages, so they have to be loaded as well
+        List<Locale> required = new ArrayList<>();
+        required.add(locale);
+        required.addAll(current.fallbacks(locale));
+        Map<Locale, LocaleBundle> bundles = new HashMap<>();
+        for (Locale needed : required) {
+            LocaleBundle own = current.bundles().get(needed);
+            if (own == null || own.isLoaded() || bundles.containsKey(needed)) continue;
+            long start = System.nanoTime();
+            LocaleBundle loaded = LanguageFileLoader.load(own.file(), null, fileManager.isCachingBundles());
+            putBundle(bundles, loaded);
+            System.getLogger(Prefixes.logPrefix()).log(System.Logger.Level.INFO,
+                    "Loaded " + own.file().getName() + " on first use with " + loaded.messages().size()
+                            + " messages in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+        }
+        registry = current.with(bundles);
+        return registry.bundle(locale);
+    }
+
+    /**
+     * Starts unloading languages that have not been requested for {@code locale-idle-unload} minutes.
+     * Only used with {@code lazy-loading}, an unloaded language is loaded again on its next request.
+     */
+    private synchronized void startIdleUnloading() {
+        long idleMinutes = fileManager.localeIdleUnload();
+        if (idleUnloader != null || !fileManager.isLazyLoading() || idleMinutes <= 0) return;
+        idleUnloader = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Lingo-IdleUnloader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long idleNanos = TimeUnit.MINUTES.toNanos(idleMinutes);
+        idleUnloader.scheduleWithFixedDelay(() -> {
+            try {
+                unloadIdle(idleNanos);
+            } catch (RuntimeException e) {
+                System.getLogger(Prefixes.logPrefix()).log(System.Logger.Level.WARNING, "Could not unload idle languages", e);
+            }
+        }, 1, 1, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Replaces every loaded bundle that has been idle for at least the given time with an unloaded one.
+     */
+    private synchronized void unloadIdle(long idleNanos) {
+        MessageRegistry current = registry;
+        long now = System.nanoTime();
+        Set<LocaleBundle> checked = Collections.newSetFromMap(new IdentityHashMap<>());
+        Map<Locale, LocaleBundle> bundles = new HashMap<>();
+        long freed = 0;
+        int unloaded = 0;
+        for (LocaleBundle bundle : current.bundles().values()) {
+            // The default language is registered twice, but must only be checked once
+            if (!bundle.isLoaded() || !checked.add(bundle)) continue;
+            if (bundle.idleNanos(now) < idleNanos) continue;
+            putBundle(bundles, LocaleBundle.unloaded(bundle.locale(), bundle.file()));
+            freed += bundle.estimatedSize();
+            unloaded++;
+        }
+        if (bundles.isEmpty()) return;
+        registry = current.with(bundles);
+        System.getLogger(Prefixes.logPrefix()).log(System.Logger.Level.INFO,
+                "Unloaded " + unloaded + " idle languages, freed about " + freed / 1024 + " KiB");
+    }
+
+    /**
+     * Parses a single language file again and publishes only its locale.
+     * Messages of the other languages are not touched and only changed messages are compiled again.
+     * @param langFile the changed language file
+     */
+    synchronized void reloadFile(File langFile) {
+        MessageRegistry current = registry;
+        LocaleBundle previous = null;
+        for (LocaleBundle bundle : current.bundles().values()) {
+            if (bundle.file().equals(langFile)) previous = bundle;
+        }
+        // Not loaded yet, the changed file is read anyway on the first request
+        if (previous != null && !previous.isLoaded()) return;
+        if (previous == null && fileList != null && !fileList.contains(langFile)) {
+            List<File> files = new ArrayList<>(fileList);
+            files.add(langFile);
+            fileList = files;
+        }
+        LocaleBundle bundle = LanguageFileLoader.load(langFile, previous, fileManager.isCachingBundles());
+
+        int added = 0, changed = 0, removed = 0;
+        Map<String, String> oldMessages = previous == null ? Map.of() : previous.messages();
+        for (Map.Entry<String, String> message : bundle.messages().entrySet()) {
+            String old = oldMessages.get(message.getKey());
+            if (old == null) added++;
+            else if (!old.equals(message.getValue())) changed++;
+        }
+        for (String key : oldMessages.keySet()) {
+            if (!bundle.messages().containsKey(key)) removed++;
+        }
+
+        Map<Locale, LocaleBundle> bundles = new HashMap<>();
+        putBundle(bundles, bundle);
+        // A new language file may complete fallback chains that have been skipped so far
+        MessageRegistry base = previous == null ? current.withFallbacks(fallbackChains()) : current;
+        registry = base.with(bundles);
+        LanguageFileLoader.retainKeys(registry.bundles().values());
+        missingTemplates.clear();
+        legacyCache.invalidateAll();
+        System.getLogger(Prefixes.logPrefix()).log(System.Logger.Level.INFO,
+                "Reloaded " + langFile.getName() + ": " + added + " added, " + changed + " changed, " + removed + " removed");
+    }
+
+    /**
+     * Starts watching the loaded language files. Every time a file changes, only this file is reloaded.
+     * This is done automatically on {@link #loadMessages(List)} if {@code hot-reload} is enabled.
+     */
+    public synchronized void startWatching() {
+        stopWatching();
+        if (fileList == null || fileList.isEmpty()) return;
+        try {
+            languageWatcher = new LanguageWatcher(this, fileList, languageFolder);
+            languageWatcher.start();
+        } catch (IOException e) {
+            languageWatcher = null;
+            System.getLogger(Prefixes.logPrefix()).log(System.Logger.Level.WARNING, "Could not watch the language files", e);
+        }
+    }
+
+    /**
+     * Stops watching the language files.
+     */
+    public synchronized void stopWatching() {
+        if (languageWatcher == null) return;
+        languageWatcher.close();
+        languageWatcher = null;
     }
 
     /**
      * @return true if Lingo is ready to use.
      */
     public boolean isReady(){
-        return messageList != null && fileList != null && SQLConnector.conIsActive();
+        LocaleStore store = localeStore;
+        return fileList != null && store != null && store.isAvailable();
     }
 
     /**
      * Call this method everytime you want to reload the message files.
+     * The previous messages stay available until the new files have been loaded completely.
      * @param fileList can be used if you want to edit the language file that should be loaded.
      */
     public void reloadMessages(List<File> fileList){
-        messageList = new HashMap<>();
-        lingoList = new HashMap<>();
-        loadMessages(fileList);
+        this.fileList = fileList;
+        this.languageFolder = null;
+        publish(false, fileList);
+        if (languageWatcher != null) startWatching();
     }
 
     /**
      * Call this method everytime you want to reload the message files. You are not able to edit the language files!
+     * The previous messages stay available until the new files have been loaded completely.
      */
     public void reloadMessages(){
-        messageList = new HashMap<>();
-        lingoList = new HashMap<>();
-        loadMessages(fileList);
+        publish(false, fileList);
     }
 
     /**
      * This method is used to get a specific message from a local language file
      * @param locale {@link Locale} is the language of the message
      * @param message is the message key: <message-key> <message-content>
-     * @return The translated message as a {@link String}
+     * @return The translated message as a {@link String}, taken from the fallback languages if it is missing in the
+     * requested one -- or the message key itself if no language contains it
      * @apiNote This method won't replace any placeholders or color codes!
      * @deprecated Use {@code getSerialized()} instead!
      */
     @Deprecated
     public String getMessage(Locale locale, String message) {
-        File localeFile = getLocaleFile(locale);
-        if (localeFile == null)throw new LanguageNotFound(locale, "Language file is null");
+        LocaleBundle bundle = bundle(locale);
+        if (bundle == null) throw new LanguageNotFound(locale, "Could not find any language file with that locale!");
 
-        Map<String, String> localeMessages = messageList.get(locale);
-        if (localeMessages == null) throw new MessageNotFound(locale, message);
-        String lngMessage = localeMessages.getOrDefault(message,"This message has not been set up for your language! (" + message + " / " + localeFile.getName() + ")");
+        String lngMessage = bundle.messages().get(message);
+        if (lngMessage == null) {
+            missingKeys.increment(locale);
+            return message;
+        }
         return lngMessage;
     }
 
+    /**
+     * Counts the lookups of keys that neither the requested language nor one of its fallbacks contains.
+     * @return the number of missing keys by requested language since the start
+     */
+    public Map<Locale, Long> getMissingKeyCounts() {
+        return missingKeys.snapshot();
+    }
+
+    /**
+     * @param locale {@link Locale} is the language
+     * @return the languages that are searched, in this order, if a message is missing in the given language
+     */
+    public List<Locale> getFallbacks(Locale locale) {
+        return registry.fallbacks(locale);
+    }
+
     /**
      * @param locale {@link Locale} is the language of the message
      * @return the full language file
      */
     public File getLocaleFile(Locale locale) {
-        for (File file : lingoList.values()) {
-            if (file.getName().replace(".yml", "").equalsIgnoreCase(locale.getISO())) return file;
+        return getLocaleFile(registry, locale);
+    }
+
+    private File getLocaleFile(MessageRegistry current, Locale locale) {
+        LocaleBundle bundle = current.bundle(locale);
+        if (bundle == null) throw new LanguageNotFound(locale,"Could not find any language file with that locale!");
+        return bundle.file();
+    }
+
+    /**
+     * @param locale {@link Locale} is the language
+     * @return true -- if the messages of the language are currently in memory
+     */
+    public boolean isLoaded(Locale locale) {
+        LocaleBundle bundle = registry.bundle(locale);
+        return bundle != null && bundle.isLoaded();
+    }
+
+    /**
+     * Estimates how much memory the messages of every known language currently use.
+     * Languages that are not loaded (see {@code lazy-loading}) are reported with 0.
+     * {@link Locale#system_default} shares its messages with the language it points to.
+     * @return the estimated heap usage in bytes by language
+     */
+    public Map<Locale, Long> getMemoryUsage() {
+        Map<Locale, Long> usage = new LinkedHashMap<>();
+        for (Map.Entry<Locale, LocaleBundle> entry : registry.bundles().entrySet()) {
+            usage.put(entry.getKey(), entry.getValue().estimatedSize());
         }
-        throw new LanguageNotFound(locale,"Could not find any language file with that locale!");
+        return usage;
     }
 
     /**
@@ -166,9 +539,24 @@ public class Lingo {
      */
     public void reload(){
         fileManager.generateFiles();
-        messageList = new HashMap<>();
-        lingoList = new HashMap<>();
-        loadMessages(fileList);
+        publish(false, fileList);
+    }
+
+    /**
+     * Call this method when your plugin gets disabled.
+     * All queued locale changes will be written before the {@link LocaleStore} and the database connection pool get closed.
+     */
+    public void shutdown(){
+        stopWatching();
+        LingoMetrics.shutdown();
+        synchronized (this) {
+            if (idleUnloader != null) idleUnloader.shutdownNow();
+            idleUnloader = null;
+        }
+        LocaleStore store = localeStore;
+        if (store != null) store.close();
+        SQLExecutor.shutdown();
+        SQLConnector.disconnect();
     }
 
     /**
@@ -180,6 +568,8 @@ public class Lingo {
 
     /**
      * Converts a {@link Component} into its serialized string representation.
+     * For messages of the language files, use {@link #getLegacy(Locale, String)} instead,
+     * which returns the serialized string without rendering it again.
      *
      * @param component The {@link Component} to be serialized.
      * @return A serialized string representation of the given {@link Component}.
@@ -208,66 +598,174 @@ public class Lingo {
      * @return parsed {@link Component}
      */
     public Component convertSerialize(String message) {
-        TextComponent.Builder builder = Component.text();
-
-
-        TextColor defaultColor = NamedTextColor.GRAY;
-        TextColor currentColor = defaultColor;
-
-
-        int index = 0;
-        while (index < message.length()) {
-            int start = message.indexOf('<', index);
-
+        return MessageTemplate.compile(message).component();
+    }
 
-            if (start == -1) {
-                builder.append(Component.text(message.substring(index), currentColor));
-                break;
-            }
+    /**
+     * Returns a localized and colorized component for the given key.
+     * The component has been compiled while loading the language files,
+     * so this lookup does not parse the message again.
+     *
+     * @param locale the target language
+     * @param key the message key
+     * @return formatted {@link Component}
+     */
+    public Component getSerialized(Locale locale, String key) {
+        return getTemplate(locale, key).component();
+    }
 
+    /**
+     * Returns a localized message in its legacy form with {@code §} color codes, e.g. for APIs that do not support
+     * {@link Component}s. The legacy form is rendered while loading the language files, so this is the same as
+     * {@code convertMessage(getSerialized(locale, key))} without the serialization.
+     *
+     * @param locale the target language
+     * @param key the message key
+     * @return the message with {@code §} color codes
+     */
+    public String getLegacy(Locale locale, String key) {
+        return getTemplate(locale, key).legacy();
+    }
 
-            int end = message.indexOf('>', start);
-            if (end == -1) {
-                builder.append(Component.text(message.substring(index), currentColor));
-                break;
-            }
+    /**
+     * Returns a localized message in its legacy form with its positional placeholders replaced.
+     * Recently formatted messages are cached, see {@code legacy-cache-size}.
+     *
+     * @param locale the target language
+     * @param key the message key
+     * @param args the arguments, {@code args[0]} replaces {@code {0}}
+     * @return the formatted message with {@code §} color codes
+     */
+    public String getLegacy(Locale locale, String key, Object... args) {
+        MessageTemplate template = getTemplate(locale, key);
+        return template.hasPlaceholders() ? legacyCache.render(template, args) : template.legacy();
+    }
 
+    /**
+     * Returns a localized message in its legacy form with its named placeholders replaced.
+     * Recently formatted messages are cached, see {@code legacy-cache-size}.
+     *
+     * @param locale the target language
+     * @param key the message key
+     * @param args the arguments by placeholder name
+     * @return the formatted message with {@code §} color codes
+     */
+    public String getLegacy(Locale locale, String key, Map<String, ?> args) {
+        MessageTemplate template = getTemplate(locale, key);
+        return template.hasPlaceholders() ? legacyCache.render(template, args) : template.legacy();
+    }
 
-            if (start > index) {
-                builder.append(Component.text(message.substring(index, start), currentColor));
-            }
+    /**
+     * Returns the message for the given key with its positional placeholders ({@code {0}}, {@code {1}}, ...) replaced.
+     * The placeholder positions have been indexed while loading the language files.
+     *
+     * @param locale the target language
+     * @param key the message key
+     * @param args the arguments, {@code args[0]} replaces {@code {0}}
+     * @return the formatted message as a {@link String}
+     * @apiNote Like {@link #getMessage(Locale, String)}, this method won't convert any color tags!
+     */
+    public String format(Locale locale, String key, Object... args) {
+        return getTemplate(locale, key).format(args);
+    }
 
+    /**
+     * Returns the message for the given key with its named placeholders (e.g. {@code {player}}) replaced.
+     *
+     * @param locale the target language
+     * @param key the message key
+     * @param args the arguments by placeholder name
+     * @return the formatted message as a {@link String}
+     * @apiNote Like {@link #getMessage(Locale, String)}, this method won't convert any color tags!
+     */
+    public String format(Locale locale, String key, Map<String, ?> args) {
+        return getTemplate(locale, key).format(args);
+    }
 
-            String tag = message.substring(start + 1, end);
+    /**
+     * Returns a localized and colorized component for the given key with its positional placeholders replaced.
+     *
+     * @param locale the target language
+     * @param key the message key
+     * @param args the arguments, {@code args[0]} replaces {@code {0}}
+     * @return formatted {@link Component}
+     */
+    public Component formatSerialized(Locale locale, String key, Object... args) {
+        return getTemplate(locale, key).formatComponent(args);
+    }
 
+    /**
+     * Returns a localized and colorized component for the given key with its named placeholders replaced.
+     *
+     * @param locale the target language
+     * @param key the message key
+     * @param args the arguments by placeholder name
+     * @return formatted {@link Component}
+     */
+    public Component formatSerialized(Locale locale, String key, Map<String, ?> args) {
+        return getTemplate(locale, key).formatComponent(args);
+    }
 
-            if (tag.equalsIgnoreCase("RESET")) {
-                currentColor = defaultColor;
-            } else {
-                try {
-                    currentColor = ServerColors.valueOf(tag).color();
-                } catch (IllegalArgumentException ignored) {
-                    builder.append(Component.text("<" + tag + ">", currentColor));
-                }
-            }
+    /**
+     * Renders a message for many users at once. The users are grouped by their cached {@link Locale}
+     * and the message is rendered once per locale instead of once per user.
+     *
+     * @param users the receiving users
+     * @param key the message key
+     * @param args the arguments, {@code args[0]} replaces {@code {0}}
+     * @return the rendered message per locale, see {@link Broadcast#sendTo(java.util.function.BiConsumer)}
+     */
+    public <U extends LingoUser> Broadcast<U> broadcast(Collection<? extends U> users, String key, Object... args) {
+        return broadcast(users, key, template -> template.formatComponent(args));
+    }
 
+    /**
+     * Renders a message with named placeholders for many users at once. The users are grouped by their
+     * cached {@link Locale} and the message is rendered once per locale instead of once per user.
+     *
+     * @param users the receiving users
+     * @param key the message key
+     * @param args the arguments by placeholder name
+     * @return the rendered message per locale, see {@link Broadcast#sendTo(java.util.function.BiConsumer)}
+     */
+    public <U extends LingoUser> Broadcast<U> broadcast(Collection<? extends U> users, String key, Map<String, ?> args) {
+        return broadcast(users, key, template -> template.formatComponent(args));
+    }
 
-            index = end + 1;
+    private <U extends LingoUser> Broadcast<U> broadcast(Collection<? extends U> users, String key,
+                                                         Function<MessageTemplate, Component> renderer) {
+        Map<Locale, List<U>> recipients = new HashMap<>();
+        for (U user : users) {
+            Locale locale = user.getCachedLanguage();
+            recipients.computeIfAbsent(locale == null ? Locale.system_default : locale, l -> new ArrayList<>()).add(user);
         }
-
-
-        return builder.build();
+        Map<Locale, Component> components = new HashMap<>(recipients.size() * 2);
+        for (Locale locale : recipients.keySet()) {
+            // Users of a language without language file get the message of the default language
+            Locale target = registry.bundle(locale) != null ? locale : Locale.system_default;
+            components.put(locale, renderer.apply(getTemplate(target, key)));
+        }
+        return new Broadcast<>(recipients, components);
     }
 
     /**
-     * Returns a localized and colorized component for the given key.
-     *
      * @param locale the target language
      * @param key the message key
-     * @return formatted {@link Component}
+     * @return the compiled {@link MessageTemplate} of the message, or of the key itself if no language contains it
      */
-    public Component getSerialized(Locale locale, String key) {
-        return convertSerialize(getMessage(locale, key));
+    public MessageTemplate getTemplate(Locale locale, String key) {
+        LocaleBundle bundle = bundle(locale);
+        if (bundle == null) throw new LanguageNotFound(locale, "Could not find any language file with that locale!");
+        MessageTemplate template = bundle.templates().get(key);
+        if (template != null) return template;
+
+        missingKeys.increment(locale);
+        template = missingTemplates.get(key);
+        if (template == null) {
+            template = MessageTemplate.compile(key);
+            if (missingTemplates.size() < MAX_MISSING_TEMPLATES) missingTemplates.put(key, template);
+        }
+        return template;
     }
 
     public FileManager getFileManager() {
@@ -0,0 +1,174 @@
+package de.relaxogames.api;
+
+import de.relaxogames.languages.Locale;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The loaded messages of a single language file.
+ * <p>
+ * A bundle is immutable. Reloading a language file creates a new bundle
+ * instead of modifying the existing one.
+ * </p>
+ * <p>
+ * With lazy loading enabled, a bundle may also be <em>unloaded</em>: it only knows
+ * its language file, and its messages are loaded the first time the locale is requested.
+ * </p>
+ * <p>
+ * A <em>merged</em> bundle contains the messages of a language completed by the messages of
+ * its fallback languages. It is built by the {@link MessageRegistry} and marks its sources as
+ * used whenever it is used itself.
+ * </p>
+ *
+ * @see MessageRegistry
+ */
+final class LocaleBundle {
+
+    private static final LocaleBundle[] NO_SOURCES = new LocaleBundle[0];
+
+    private final Locale locale;
+    private final File file;
+    private final Map<String, String> messages;
+    private final Map<String, MessageTemplate> templates;
+    private final long estimatedSize;
+    private final boolean loaded;
+    private final LocaleBundle[] sources;
+
+    /** Set by lookups, reset by the idle check of lazy loading. */
+    private volatile boolean accessed = true;
+    /** The time the idle check has last seen this bundle being accessed. Only used by the idle check. */
+    private long lastSeenAccessed = System.nanoTime();
+
+    /**
+     * @param locale    the {@link Locale} of the language file
+     * @param file      the language file the messages were loaded from
+     * @param messages  the raw messages by key, must not be modified afterwards
+     * @param templates the compiled messages by key, must not be modified afterwards
+     */
+    LocaleBundle(Locale locale, File file, Map<String, String> messages, Map<String, MessageTemplate> templates) {
+        this(locale, file, messages, templates, NO_SOURCES);
+    }
+
+    private LocaleBundle(Locale locale, File file, Map<String, String> messages, Map<String, MessageTemplate> templates,
+                         LocaleBundle[] sources) {
+        this.locale = locale;
+        this.file = file;
+        this.messages = Collections.unmodifiableMap(messages);
+        this.templates = Collections.unmodifiableMap(templates);
+        this.estimatedSize = estimateSize(messages);
+        this.loaded = true;
+        this.sources = sources;
+    }
+
+    private LocaleBundle(Locale locale, File file) {
+        this.locale = locale;
+        this.file = file;
+        this.messages = Map.of();
+        this.templates = Map.of();
+        this.estimatedSize = 0;
+        this.loaded = false;
+        this.sources = NO_SOURCES;
+    }
+
+    /**
+     * @param locale the {@link Locale} of the language file
+     * @param file   the language file
+     * @return a bundle that only knows its file, its messages have not been loaded yet
+     */
+    static LocaleBundle unloaded(Locale locale, File file) {
+        return new LocaleBundle(locale, file);
+    }
+
+    /**
+     * @param own       the bundle of the language itself
+     * @param fallbacks the loaded bundles of its fallback languages, in the order they are searched
+     * @return a bundle with the messages of {@code own}, completed by the messages of the fallbacks
+     */
+    static LocaleBundle merged(LocaleBundle own, List<LocaleBundle> fallbacks) {
+        int size = own.messages.size();
+        for (LocaleBundle fallback : fallbacks) size = Math.max(size, fallback.messages.size());
+        Map<String, String> messages = new HashMap<>(size * 4 / 3 + 1);
+        Map<String, MessageTemplate> templates = new HashMap<>(size * 4 / 3 + 1);
+        for (int i = fallbacks.size() - 1; i >= 0; i--) {
+            messages.putAll(fallbacks.get(i).messages);
+            templates.putAll(fallbacks.get(i).templates);
+        }
+        messages.putAll(own.messages);
+        templates.putAll(own.templates);
+
+        LocaleBundle[] sources = new LocaleBundle[fallbacks.size() + 1];
+        sources[0] = own;
+        for (int i = 0; i < fallbacks.size(); i++) sources[i + 1] = fallbacks.get(i);
+        return new LocaleBundle(own.locale, own.file, messages, templates, sources);
+    }
+
+    Locale locale() {
+        return locale;
+    }
+
+    File file() {
+        return file;
+    }
+
+    Map<String, String> messages() {
+        return messages;
+    }
+
+    Map<String, MessageTemplate> templates() {
+        return templates;
+    }
+
+    /**
+     * @return false -- if this bundle only knows its file and the messages still have to be loaded
+     */
+    boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * @return the estimated heap usage of the messages and templates of this bundle in bytes
+     */
+    long estimatedSize() {
+        return estimatedSize;
+    }
+
+    /**
+     * Marks the bundle and, if it is merged, its sources as used.
+     * Only writes if necessary, so concurrent lookups do not contend on the field.
+     */
+    void touch() {
+        if (!accessed) accessed = true;
+        for (LocaleBundle source : sources) source.touch();
+    }
+
+    /**
+     * Called periodically by the idle check of lazy loading.
+     *
+     * @param now the current {@link System#nanoTime()}
+     * @return the nanoseconds since the bundle has last been used
+     */
+    long idleNanos(long now) {
+        if (accessed) {
+            accessed = false;
+            lastSeenAccessed = now;
+        }
+        return now - lastSeenAccessed;
+    }
+
+    /**
+     * Roughly estimates the heap usage of the messages: the message strings, their compiled
+     * templates (segments hold substrings of the message) and the map entries. Keys are shared
+     * between all locales and therefore not counted.
+     */
+    private static long estimateSize(Map<String, String> messages) {
+        long size = 0;
+        for (String message : messages.values()) {
+            size += 2L * (40 + message.length()) + 3 * 32 + 64;
+        }
+        return size;
+    }
+}
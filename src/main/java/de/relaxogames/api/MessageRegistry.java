@@ -0,0 +1,164 @@
+package de.relaxogames.api;
+
+import de.relaxogames.languages.Locale;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable snapshot of all loaded language files.
+ * <p>
+ * {@link Lingo} builds a new registry off to the side whenever language files are
+ * (re)loaded and publishes it with a single volatile write. Readers therefore never
+ * need a lock and never see a half-loaded state: they either see the old or the new
+ * snapshot.
+ * </p>
+ * <p>
+ * Bundles are stored in an array indexed by {@link Locale#id()}, so resolving the
+ * bundle of a locale is a single array access without any string operation. Locales
+ * registered after the registry was built simply have no bundle in it.
+ * </p>
+ * <p>
+ * Every locale has a fallback chain, which always ends with {@link Locale#system_default}.
+ * The effective messages of a locale (its own messages, completed by the messages of its
+ * fallbacks) are merged while building the registry, so looking up a message stays a
+ * single hash probe even if it comes from a fallback language. A new registry only merges
+ * the locales whose bundle or one of whose fallback bundles changed, all others are taken
+ * over from the previous registry.
+ * </p>
+ */
+final class MessageRegistry {
+
+    private static final Locale[] DEFAULT_FALLBACKS = {Locale.system_default};
+
+    static final MessageRegistry EMPTY = new MessageRegistry(new LocaleBundle[0], new Locale[0][], null);
+
+    private final LocaleBundle[] bundles;
+    private final LocaleBundle[] effective;
+    private final Locale[][] fallbacks;
+    private final Map<Locale, LocaleBundle> bundleMap;
+
+    /**
+     * @param previous the registry this one is derived from, whose effective bundles are reused where
+     *                 nothing changed, or {@code null}
+     */
+    private MessageRegistry(LocaleBundle[] bundles, Locale[][] fallbacks, MessageRegistry previous) {
+        this.bundles = bundles;
+        this.fallbacks = fallbacks;
+        this.effective = new LocaleBundle[bundles.length];
+        Map<Locale, LocaleBundle> map = new LinkedHashMap<>();
+        Locale[] locales = Locale.values();
+        for (int id = 0; id < bundles.length; id++) {
+            LocaleBundle bundle = bundles[id];
+            if (bundle == null) continue;
+            map.put(locales[id], bundle);
+            Locale[] chain = chain(id);
+            effective[id] = previous != null && previous.unchanged(id, bundle, chain, this)
+                    ? previous.effective[id] : resolve(bundle, chain);
+        }
+        this.bundleMap = Collections.unmodifiableMap(map);
+    }
+
+    /**
+     * @return {@code true} if the locale has the same bundle and fallback chain in this registry and
+     * all bundles of the chain are the same in both registries
+     */
+    private boolean unchanged(int id, LocaleBundle bundle, Locale[] chain, MessageRegistry next) {
+        if (id >= effective.length || bundles[id] != bundle || !Arrays.equals(chain(id), chain)) return false;
+        for (Locale fallback : chain) {
+            if (bundleAt(fallback.id()) != next.bundleAt(fallback.id())) return false;
+        }
+        return true;
+    }
+
+    private LocaleBundle bundleAt(int id) {
+        return id < bundles.length ? bundles[id] : null;
+    }
+
+    /**
+     * Merges a bundle with the bundles of its fallback chain.
+     *
+     * @return the bundle itself if none of its fallbacks is loaded, or an unloaded bundle if one of them
+     * still has to be loaded
+     */
+    private LocaleBundle resolve(LocaleBundle own, Locale[] chain) {
+        if (!own.isLoaded()) return own;
+        List<LocaleBundle> sources = new ArrayList<>(chain.length);
+        for (Locale fallback : chain) {
+            LocaleBundle bundle = bundleAt(fallback.id());
+            if (bundle == null || bundle == own || sources.contains(bundle)) continue;
+            if (!bundle.isLoaded()) return LocaleBundle.unloaded(own.locale(), own.file());
+            sources.add(bundle);
+        }
+        return sources.isEmpty() ? own : LocaleBundle.merged(own, sources);
+    }
+
+    /**
+     * @param locale the requested {@link Locale}
+     * @return the effective {@link LocaleBundle} of the locale including its fallback messages,
+     * or {@code null} if no file has been loaded for it
+     */
+    LocaleBundle bundle(Locale locale) {
+        int id = locale.id();
+        return id < effective.length ? effective[id] : null;
+    }
+
+    /**
+     * @return all loaded bundles by their {@link Locale} ordered by id, without the messages of their fallbacks
+     */
+    Map<Locale, LocaleBundle> bundles() {
+        return bundleMap;
+    }
+
+    /**
+     * @param locale the {@link Locale}
+     * @return the fallbacks of the locale in the order they are searched, ending with {@link Locale#system_default}
+     */
+    List<Locale> fallbacks(Locale locale) {
+        return List.of(chain(locale.id()));
+    }
+
+    private Locale[] chain(int id) {
+        if (id == Locale.system_default.id()) return new Locale[0];
+        return id < fallbacks.length && fallbacks[id] != null ? fallbacks[id] : DEFAULT_FALLBACKS;
+    }
+
+    /**
+     * Creates a new registry containing the bundles of this one, replaced or extended by the given bundles.
+     *
+     * @param changed the new bundles by their {@link Locale}
+     * @return the new registry
+     */
+    MessageRegistry with(Map<Locale, LocaleBundle> changed) {
+        LocaleBundle[] merged = Arrays.copyOf(bundles, Math.max(bundles.length, Locale.count()));
+        for (Map.Entry<Locale, LocaleBundle> entry : changed.entrySet()) {
+            merged[entry.getKey().id()] = entry.getValue();
+        }
+        return new MessageRegistry(merged, fallbacks, this);
+    }
+
+    /**
+     * Creates a new registry containing the bundles of this one with new fallback chains.
+     * {@link Locale#system_default} is appended to every chain, locales without a configured chain
+     * only fall back to it.
+     *
+     * @param chains the configured fallbacks by their {@link Locale}, in the order they should be searched
+     * @return the new registry
+     */
+    MessageRegistry withFallbacks(Map<Locale, List<Locale>> chains) {
+        Locale[][] resolved = new Locale[Locale.count()][];
+        for (Map.Entry<Locale, List<Locale>> entry : chains.entrySet()) {
+            Locale locale = entry.getKey();
+            List<Locale> chain = new ArrayList<>(entry.getValue());
+            chain.remove(locale);
+            chain.remove(Locale.system_default);
+            if (locale != Locale.system_default) chain.add(Locale.system_default);
+            resolved[locale.id()] = chain.toArray(new Locale[0]);
+        }
+        return new MessageRegistry(bundles, resolved, this);
+    }
+}
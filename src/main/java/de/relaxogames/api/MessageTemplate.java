@@ -0,0 +1,337 @@
+package de.relaxogames.api;
+
+import de.relaxogames.languages.ServerColors;
+import de.relaxogames.metrics.LingoMetrics;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.format.TextColor;
+import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable, precompiled form of a language message.
+ * <p>
+ * The raw message is split into text segments and their resolved {@link TextColor}
+ * exactly once, when the language files are loaded. The resulting {@link Component}
+ * is built at the same time, so looking up a message does not parse, allocate
+ * or throw anything.
+ * </p>
+ * <p>
+ * Supported tags are the names of {@link ServerColors} (e.g. {@code <DodgerBlue3>})
+ * and {@code <RESET>}, which switches back to the default color. Unknown tags are
+ * kept as plain text.
+ * </p>
+ * <p>
+ * Placeholders like {@code {player}} (named) or {@code {0}} (positional) are located
+ * while compiling as well. Formatting a message with arguments is therefore a single
+ * linear fill of the precomputed slots, no matter how many placeholders it contains.
+ * Placeholders without a matching argument are kept as they are.
+ * </p>
+ * <p>
+ * The {@code §}-coded legacy form of the message is rendered once and kept as well,
+ * for APIs that still expect legacy strings.
+ * </p>
+ *
+ * @see Lingo#getSerialized(de.relaxogames.languages.Locale, String)
+ */
+public final class MessageTemplate {
+
+    /** The color used for text before the first tag and after {@code <RESET>}. */
+    static final TextColor DEFAULT_COLOR = NamedTextColor.GRAY;
+    static final LegacyComponentSerializer LEGACY = LegacyComponentSerializer.legacySection();
+
+    private final String raw;
+    private final List<Segment> segments;
+    private final Component component;
+
+    /** The raw message split at its placeholders, used for the {@link String} based formatting. */
+    private final List<Segment> rawSegments;
+    private final int literalLength;
+    private final boolean hasPlaceholders;
+
+    /** Rendered on first use, see {@link #legacy()}. Racy, but every thread renders the same string. */
+    private String legacy;
+
+    private MessageTemplate(String raw, List<Segment> segments, List<Segment> rawSegments) {
+        this.raw = raw;
+        this.segments = segments;
+        this.rawSegments = rawSegments;
+        TextComponent.Builder builder = Component.text();
+        int length = 0;
+        boolean placeholders = false;
+        for (Segment segment : segments) {
+            builder.append(Component.text(segment.text, segment.color));
+        }
+        for (Segment segment : rawSegments) {
+            if (segment.placeholder != null) placeholders = true;
+            else length += segment.text.length();
+        }
+        this.component = builder.build();
+        this.literalLength = length;
+        this.hasPlaceholders = placeholders;
+    }
+
+    /**
+     * Parses a raw message containing custom color tags.
+     *
+     * @param message the raw message
+     * @return the compiled {@link MessageTemplate}
+     */
+    public static MessageTemplate compile(String message) {
+        List<Segment> segments = new ArrayList<>();
+        TextColor currentColor = DEFAULT_COLOR;
+
+        int index = 0;
+        while (index < message.length()) {
+            int start = message.indexOf('<', index);
+            if (start == -1) {
+                addText(segments, message.substring(index), currentColor);
+                break;
+            }
+
+            int end = message.indexOf('>', start);
+            if (end == -1) {
+                addText(segments, message.substring(index), currentColor);
+                break;
+            }
+
+            if (start > index) {
+                addText(segments, message.substring(index, start), currentColor);
+            }
+
+            String tag = message.substring(start + 1, end);
+            if (tag.equalsIgnoreCase("RESET")) {
+                currentColor = DEFAULT_COLOR;
+            } else {
+                ServerColors color = ServerColors.byName(tag);
+                if (color != null) currentColor = color.color();
+                else addText(segments, "<" + tag + ">", currentColor);
+            }
+
+            index = end + 1;
+        }
+        List<Segment> rawSegments = new ArrayList<>();
+        addText(rawSegments, message, null);
+        return new MessageTemplate(message, List.copyOf(segments), List.copyOf(rawSegments));
+    }
+
+    /**
+     * Restores a template from its compiled parts, e.g. from the {@link BundleCache}, without parsing the message again.
+     *
+     * @param raw         the raw message
+     * @param segments    the colored segments, see {@link #segments()}
+     * @param rawSegments the segments of the raw message, see {@link #rawSegments()}
+     * @param legacy      the rendered legacy form
+     * @return the restored {@link MessageTemplate}
+     */
+    static MessageTemplate restore(String raw, List<Segment> segments, List<Segment> rawSegments, String legacy) {
+        MessageTemplate template = new MessageTemplate(raw, List.copyOf(segments), List.copyOf(rawSegments));
+        template.legacy = legacy;
+        return template;
+    }
+
+    /**
+     * Adds a piece of text, split at its placeholders, to the given segments.
+     */
+    private static void addText(List<Segment> segments, String text, TextColor color) {
+        int literalStart = 0;
+        int searchFrom = 0;
+        while (true) {
+            int open = text.indexOf('{', searchFrom);
+            if (open == -1) break;
+            int close = text.indexOf('}', open + 1);
+            if (close == -1) break;
+
+            Placeholder placeholder = Placeholder.parse(text.substring(open + 1, close));
+            if (placeholder == null) {
+                searchFrom = open + 1;
+                continue;
+            }
+            if (open > literalStart) segments.add(new Segment(text.substring(literalStart, open), color, null));
+            segments.add(new Segment(text.substring(open, close + 1), color, placeholder));
+            literalStart = close + 1;
+            searchFrom = literalStart;
+        }
+        if (literalStart < text.length()) segments.add(new Segment(text.substring(literalStart), color, null));
+    }
+
+    /**
+     * @return the raw message this template was compiled from
+     */
+    public String raw() {
+        return raw;
+    }
+
+    /**
+     * @return the text segments of the message and their colors
+     */
+    List<Segment> segments() {
+        return segments;
+    }
+
+    /**
+     * @return the raw message split at its placeholders, without colors
+     */
+    List<Segment> rawSegments() {
+        return rawSegments;
+    }
+
+    /**
+     * @return the prebuilt {@link Component} of this message
+     */
+    public Component component() {
+        return component;
+    }
+
+    /**
+     * Returns the message serialized with {@code §} color codes. It is rendered only once,
+     * the language files render it while loading.
+     *
+     * @return the legacy form of {@link #component()}
+     */
+    public String legacy() {
+        String rendered = legacy;
+        if (rendered == null) {
+            rendered = LEGACY.serialize(component);
+            legacy = rendered;
+        }
+        return rendered;
+    }
+
+    /**
+     * @return true -- if this message contains at least one placeholder
+     */
+    public boolean hasPlaceholders() {
+        return hasPlaceholders;
+    }
+
+    /**
+     * Fills the positional placeholders ({@code {0}}, {@code {1}}, ...) of the raw message.
+     *
+     * @param args the arguments, {@code args[0]} replaces {@code {0}}
+     * @return the raw message with its placeholders replaced
+     */
+    public String format(Object... args) {
+        return fill(args, null);
+    }
+
+    /**
+     * Fills the named placeholders (e.g. {@code {player}}) of the raw message.
+     *
+     * @param args the arguments by placeholder name
+     * @return the raw message with its placeholders replaced
+     */
+    public String format(Map<String, ?> args) {
+        return fill(null, args);
+    }
+
+    /**
+     * Fills the positional placeholders ({@code {0}}, {@code {1}}, ...) and builds the colored {@link Component}.
+     * Every argument is displayed in the color that is active at its placeholder.
+     *
+     * @param args the arguments, {@code args[0]} replaces {@code {0}}
+     * @return the formatted {@link Component}
+     */
+    public Component formatComponent(Object... args) {
+        return fillComponent(args, null);
+    }
+
+    /**
+     * Fills the named placeholders (e.g. {@code {player}}) and builds the colored {@link Component}.
+     * Every argument is displayed in the color that is active at its placeholder.
+     *
+     * @param args the arguments by placeholder name
+     * @return the formatted {@link Component}
+     */
+    public Component formatComponent(Map<String, ?> args) {
+        return fillComponent(null, args);
+    }
+
+    private String fill(Object[] positional, Map<String, ?> named) {
+        if (!hasPlaceholders) return raw;
+        long start = LingoMetrics.start();
+        StringBuilder builder = new StringBuilder(literalLength + 16 * rawSegments.size());
+        for (Segment segment : rawSegments) {
+            String value = segment.placeholder == null ? null : segment.placeholder.resolve(positional, named);
+            builder.append(value == null ? segment.text : value);
+        }
+        String formatted = builder.toString();
+        LingoMetrics.recordRender(LingoMetrics.Render.STRING, start);
+        return formatted;
+    }
+
+    private Component fillComponent(Object[] positional, Map<String, ?> named) {
+        if (!hasPlaceholders) return component;
+        long start = LingoMetrics.start();
+        TextComponent.Builder builder = Component.text();
+        for (Segment segment : segments) {
+            String value = segment.placeholder == null ? null : segment.placeholder.resolve(positional, named);
+            builder.append(Component.text(value == null ? segment.text : value, segment.color));
+        }
+        Component formatted = builder.build();
+        LingoMetrics.recordRender(LingoMetrics.Render.COMPONENT, start);
+        return formatted;
+    }
+
+    /**
+     * A piece of text and the color it is displayed in.
+     * If the piece is a placeholder, {@link #text} holds the placeholder as written in the message.
+     */
+    static final class Segment {
+        final String text;
+        final TextColor color;
+        final Placeholder placeholder;
+
+        Segment(String text, TextColor color, Placeholder placeholder) {
+            this.text = text;
+            this.color = color;
+            this.placeholder = placeholder;
+        }
+    }
+
+    /**
+     * A named or positional placeholder slot.
+     */
+    static final class Placeholder {
+        final String name;
+        final int index;
+
+        private Placeholder(String name, int index) {
+            this.name = name;
+            this.index = index;
+        }
+
+        /**
+         * @param name the text between the curly braces
+         * @return the placeholder, or {@code null} if the text is not a valid placeholder name
+         */
+        static Placeholder parse(String name) {
+            if (name.isEmpty()) return null;
+            boolean numeric = true;
+            for (int i = 0; i < name.length(); i++) {
+                char c = name.charAt(i);
+                if (c >= '0' && c <= '9') continue;
+                numeric = false;
+                if (!Character.isLetter(c) && c != '_' && c != '-' && c != '.') return null;
+            }
+            if (numeric && name.length() > 9) return null;
+            return new Placeholder(name, numeric ? Integer.parseInt(name) : -1);
+        }
+
+        /**
+         * @return the argument for this placeholder, or {@code null} if none was given
+         */
+        String resolve(Object[] positional, Map<String, ?> named) {
+            if (index >= 0) {
+                if (positional == null || index >= positional.length) return null;
+                return String.valueOf(positional[index]);
+            }
+            if (named == null || !named.containsKey(name)) return null;
+            return String.valueOf(named.get(name));
+        }
+    }
+}
@@ -1,23 +1,58 @@
 package de.relaxogames.api.interfaces;
 
+import de.relaxogames.api.Lingo;
 import de.relaxogames.languages.Locale;
-import de.relaxogames.sql.LingoSQL;
+import de.relaxogames.sql.SQLExecutor;
+import de.relaxogames.store.LocaleStore;
 
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 public class LingoPlayer implements LingoUser {
 
-    private LingoSQL sqLingos = new LingoSQL();
+    /**
+     * The store given to the constructor, or {@code null} to always use the current store of the library
+     */
+    private final LocaleStore store;
 
     UUID uuid;
-    Locale lng;
+    volatile Locale lng;
 
     /**
+     * Resolves the locale of the player and creates the database entry if needed.
+     * This costs one database round trip, or none if the player is already cached.
+     * The player follows the store of the library, also if it is replaced with {@link Lingo#setLocaleStore(LocaleStore)}.
      * @param uuid the UUID of the needed player
      */
     public LingoPlayer(UUID uuid){
-        if(!sqLingos.hasEntry(uuid)) sqLingos.insertEntry(uuid);
         this.uuid = uuid;
+        this.store = null;
+        this.lng = store().fetchOrCreate(uuid);
+    }
+
+    /**
+     * Resolves the locale of the player in the given {@link LocaleStore} and creates the entry if needed.
+     * @param uuid the UUID of the needed player
+     * @param store the store the locale of the player is kept in
+     */
+    public LingoPlayer(UUID uuid, LocaleStore store){
+        this.uuid = uuid;
+        this.store = store;
+        this.lng = store.fetchOrCreate(uuid);
+    }
+
+    private LocaleStore store() {
+        return store != null ? store : Lingo.getLibrary().getLocaleStore();
+    }
+
+    /**
+     * Creates a {@link LingoPlayer} without blocking the calling thread.
+     * Use this on join instead of the constructor, since the constructor may query the database.
+     * @param uuid the UUID of the needed player
+     * @return a future completed with the {@link LingoPlayer} once its locale has been resolved
+     */
+    public static CompletableFuture<LingoPlayer> loadAsync(UUID uuid){
+        return CompletableFuture.supplyAsync(() -> new LingoPlayer(uuid), SQLExecutor.executor());
     }
 
     /**
@@ -30,26 +65,61 @@ public class LingoPlayer implements LingoUser {
 
     /**
      * @return the {@link Locale} of a player
+     * @apiNote With the sql store, the locale is served from the {@link de.relaxogames.sql.LocaleCache}, the database is
+     * only queried on a cache miss. While the store is unavailable, the locale the player has been loaded with is kept.
      */
     @Override
     public Locale getLanguage() {
-        if (lng == null) {
-            new Thread(() -> {
-                lng = sqLingos.loadLocale(getUUID());
-            }).run();
-        }
+        lng = store().loadLocale(getUUID(), lng);
+        return lng;
+    }
+
+    /**
+     * @return the {@link Locale} of the player known to the {@link LocaleStore} without blocking, or the locale the player
+     * has been loaded with if it is not cached anymore. Never queries the database.
+     */
+    @Override
+    public Locale getCachedLanguage() {
+        Locale cached = store().cachedLocale(getUUID());
+        if (cached != null) lng = cached;
         return lng;
     }
 
     /**
-     * This method sets the value of a player locale
+     * This method sets the value of a player locale.
+     * The change is queued and written to the {@link LocaleStore} in the background.
      * @param value is the new language that should be used
      */
     @Override
     public void setLanguage(Locale value) {
-        new Thread(() -> {
-            sqLingos.setLocale(getUUID(), value);
-            lng = sqLingos.loadLocale(getUUID());
-        }).start();
+        lng = value;
+        store().saveLocale(getUUID(), value);
+    }
+
+    /**
+     * Resolves the {@link Locale} of the player without blocking the calling thread.
+     * Cached players complete immediately, otherwise the lookup runs on the {@link SQLExecutor}.
+     * @return a future completed with the players {@link Locale}
+     */
+    @Override
+    public CompletableFuture<Locale> loadLanguageAsync() {
+        Locale cached = store().cachedLocale(getUUID());
+        if (cached != null) {
+            lng = cached;
+            return CompletableFuture.completedFuture(cached);
+        }
+        return CompletableFuture.supplyAsync(this::getLanguage, SQLExecutor.executor());
+    }
+
+    /**
+     * Sets the {@link Locale} of the player. Since the change is only queued,
+     * the returned future is already completed.
+     * @param value is the new language that should be used
+     * @return a completed future holding the new {@link Locale}
+     */
+    @Override
+    public CompletableFuture<Locale> setLanguageAsync(Locale value) {
+        setLanguage(value);
+        return CompletableFuture.completedFuture(value);
     }
 }
@@ -1,8 +1,10 @@
 package de.relaxogames.api.interfaces;
 
 import de.relaxogames.languages.Locale;
+import de.relaxogames.sql.SQLExecutor;
 
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 public interface LingoUser {
 
@@ -10,4 +12,33 @@ public interface LingoUser {
     Locale getLanguage();
     void setLanguage(Locale value);
 
+    /**
+     * Returns the {@link Locale} of this user without querying the database if possible.
+     * Used to group users, e.g. by {@link de.relaxogames.api.Lingo#broadcast(java.util.Collection, String, Object...)}.
+     * @return the last known {@link Locale} of this user
+     */
+    default Locale getCachedLanguage() {
+        return getLanguage();
+    }
+
+    /**
+     * Resolves the {@link Locale} of this user without blocking the calling thread.
+     * @return a future completed with the users {@link Locale}
+     */
+    default CompletableFuture<Locale> loadLanguageAsync() {
+        return CompletableFuture.supplyAsync(this::getLanguage, SQLExecutor.executor());
+    }
+
+    /**
+     * Sets the {@link Locale} of this user without blocking the calling thread.
+     * @param value is the new language that should be used
+     * @return a future completed with the new {@link Locale} once it has been applied
+     */
+    default CompletableFuture<Locale> setLanguageAsync(Locale value) {
+        return CompletableFuture.supplyAsync(() -> {
+            setLanguage(value);
+            return value;
+        }, SQLExecutor.executor());
+    }
+
 }
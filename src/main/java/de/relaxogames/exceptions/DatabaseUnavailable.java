@@ -0,0 +1,34 @@
+package de.relaxogames.exceptions;
+
+/**
+ * Thrown when the database is currently not reachable.
+ * <p>
+ * Either the retries of a statement have been used up, or the circuit breaker is open and
+ * the statement has been rejected without contacting the database at all. Callers should
+ * degrade, e.g. by using a cached value, instead of retrying right away.
+ * </p>
+ *
+ * @see de.relaxogames.sql.CircuitBreaker
+ */
+public class DatabaseUnavailable extends DriverLostConnection {
+
+    /**
+     * Creates a new {@code DatabaseUnavailable} with the specified detail message.
+     *
+     * @param message a description of the connection error
+     */
+    public DatabaseUnavailable(String message) {
+        super(message);
+    }
+
+    /**
+     * Creates a new {@code DatabaseUnavailable} with the specified message
+     * and underlying cause.
+     *
+     * @param message a description of the connection error
+     * @param cause   the exception of the last failed try
+     */
+    public DatabaseUnavailable(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
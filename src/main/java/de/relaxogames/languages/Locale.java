@@ -1,34 +1,192 @@
 package de.relaxogames.languages;
 
-import java.awt.*;
+import de.relaxogames.Prefixes;
 
-public enum Locale {
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
-    system_default("de_DE"),
-    GERMAN("de_DE"),
-    ENGLISH("en_US");
+/**
+ * A language known to Lingo.
+ * <p>
+ * Locales are interned handles: there is exactly one instance per ISO-Short, so they can
+ * be compared with {@code ==}. Every locale gets a dense id in the order it was registered,
+ * which lets message tables be indexed by {@link #id()} instead of being looked up by name.
+ * </p>
+ * <p>
+ * {@link #GERMAN} and {@link #ENGLISH} are always known. Every other language is registered
+ * when a language file with its ISO-Short as name (e.g. {@code fr_FR.yml}) is loaded, so adding
+ * a language does not need a new release of Lingo.
+ * </p>
+ * <p>
+ * Locales used to be an enum. {@link #valueOf(String)}, {@link #compareTo(Locale)} (by id), {@link #name()},
+ * {@link #ordinal()} and serialization still work like before. Since locales are no enum constants anymore,
+ * they cannot be used in a {@code switch} or as key of an {@link java.util.EnumMap}; compare them with
+ * {@code ==} and use a {@link java.util.HashMap} or an array indexed by {@link #id()} instead.
+ * </p>
+ */
+public final class Locale implements Comparable<Locale>, Serializable {
 
-    String lngISO;
+    private static final long serialVersionUID = 1L;
 
-    Locale(String lngISO) {
+    /**
+     * All registered locales by their id.
+     */
+    private static volatile Locale[] BY_ID = new Locale[0];
+
+    /**
+     * All locales except {@link #system_default} by their ISO-Short, both as written and in lower case.
+     */
+    private static final Map<String, Locale> BY_ISO = new ConcurrentHashMap<>();
+
+    /**
+     * Unknown ISO-Shorts that have already been reported by {@link #convertStringToLanguage(String)}.
+     */
+    private static final Set<String> REPORTED = ConcurrentHashMap.newKeySet();
+
+    public static final Locale system_default = register("system_default", "de_DE");
+    public static final Locale GERMAN = register("GERMAN", "de_DE");
+    public static final Locale ENGLISH = register("ENGLISH", "en_US");
+
+    private final String name;
+    private final String lngISO;
+    private final int id;
+
+    private Locale(String name, String lngISO, int id) {
+        this.name = name;
         this.lngISO = lngISO;
+        this.id = id;
+    }
+
+    private static synchronized Locale register(String name, String lngISO) {
+        Locale[] locales = BY_ID;
+        Locale language = new Locale(name, lngISO, locales.length);
+        locales = Arrays.copyOf(locales, locales.length + 1);
+        locales[language.id] = language;
+        if (!name.equals("system_default")) {
+            BY_ISO.putIfAbsent(lngISO, language);
+            BY_ISO.putIfAbsent(lngISO.toLowerCase(java.util.Locale.ROOT), language);
+        }
+        BY_ID = locales;
+        return language;
     }
 
     public String getISO() {
         return lngISO;
     }
 
+    /**
+     * @return the dense id of this locale, starting at 0 in the order the locales were registered
+     */
+    public int id() {
+        return id;
+    }
+
+    /**
+     * @return the same as {@link #id()}, kept for callers written against the former enum
+     */
+    public int ordinal() {
+        return id;
+    }
+
+    /**
+     * @return the constant name for the built-in locales (e.g. {@code GERMAN}), otherwise the ISO-Short
+     */
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    /**
+     * Orders the locales by their id, like the constants of the former enum.
+     */
+    @Override
+    public int compareTo(Locale other) {
+        return Integer.compare(id, other.id);
+    }
+
+    /**
+     * Keeps deserialized locales interned. The id of a locale may differ between two runs, so the
+     * locale is resolved by its ISO-Short again.
+     */
+    private Object readResolve() {
+        return name.equals("system_default") ? system_default : of(lngISO);
+    }
+
+    /**
+     * Returns the locale with the given name, like {@code valueOf} of the former enum.
+     * @param name the name of the locale, see {@link #name()}
+     * @return the {@link Locale}
+     * @throws IllegalArgumentException if no locale with this name has been registered
+     */
+    public static Locale valueOf(String name) {
+        if (name == null) throw new NullPointerException("Name is null");
+        for (Locale language : BY_ID) {
+            if (language.name.equals(name)) return language;
+        }
+        throw new IllegalArgumentException("No locale " + name);
+    }
+
+    /**
+     * @return all registered locales, ordered by their id
+     */
+    public static Locale[] values() {
+        return BY_ID.clone();
+    }
+
+    /**
+     * @return the number of registered locales, all ids are lower than this
+     */
+    public static int count() {
+        return BY_ID.length;
+    }
+
+    /**
+     * Returns the locale of an ISO-Short and registers it if it is not known yet.
+     * @param ISOShort is the ISO-Short of the language, e.g. {@code fr_FR}
+     * @return the {@link Locale}
+     */
+    public static Locale of(String ISOShort) {
+        Locale language = find(ISOShort);
+        if (language != null) return language;
+        synchronized (Locale.class) {
+            language = find(ISOShort);
+            return language != null ? language : register(ISOShort, ISOShort);
+        }
+    }
+
     /**
      * Converts the ISOShort to a {@link Locale}
      * @param ISOShort is the ISO-Short that is needed as a search index
      * @return the {@link Locale} -- if there is no language with the search index, the system_default language will be returned.
+     * Every unknown ISO-Short is logged once.
      */
     public static Locale convertStringToLanguage(String ISOShort){
-        for (Locale languages : Locale.values()) {
-            if (languages.getISO().equalsIgnoreCase(ISOShort) && languages != system_default) {
-                return languages;
-            }
+        if (ISOShort == null) return system_default;
+        Locale language = find(ISOShort);
+        if (language != null) return language;
+        if (REPORTED.add(ISOShort)) {
+            System.getLogger(Prefixes.logPrefix()).log(System.Logger.Level.WARNING,
+                    "There is no language file for " + ISOShort + ", using the default language instead");
         }
         return system_default;
     }
+
+    /**
+     * Looks up a {@link Locale} without falling back to the system_default language.
+     * @param ISOShort is the ISO-Short that is needed as a search index
+     * @return the {@link Locale} -- or null if there is no language with the search index
+     */
+    public static Locale find(String ISOShort){
+        if (ISOShort == null) return null;
+        Locale language = BY_ISO.get(ISOShort);
+        if (language == null) language = BY_ISO.get(ISOShort.toLowerCase(java.util.Locale.ROOT));
+        return language;
+    }
 }
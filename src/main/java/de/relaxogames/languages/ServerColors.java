@@ -2,6 +2,9 @@ package de.relaxogames.languages;
 
 import net.kyori.adventure.text.format.TextColor;
 
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * Represents a collection of predefined server colors.
  * Each color is defined by its RGB values and a corresponding {@link TextColor}.
@@ -51,6 +54,17 @@ public enum ServerColors {
      */
     Chartreuse2(118, 238, 0, TextColor.color(118, 238, 0));
 
+    /**
+     * All colors by their exact constant name, used to resolve message tags without exceptions.
+     */
+    private static final Map<String, ServerColors> BY_NAME = new HashMap<>();
+
+    static {
+        for (ServerColors color : values()) {
+            BY_NAME.put(color.name(), color);
+        }
+    }
+
     /**
      * The red component of the RGB color.
      */
@@ -95,6 +109,17 @@ public enum ServerColors {
         return serializedColor;
     }
 
+    /**
+     * Resolves a color by its exact constant name, like {@link #valueOf(String)},
+     * but without throwing an exception for unknown names.
+     *
+     * @param name The name of the color, e.g. {@code DodgerBlue3}.
+     * @return The matching {@code ServerColors}, or {@code null} if there is none.
+     */
+    public static ServerColors byName(String name) {
+        return BY_NAME.get(name);
+    }
+
     /**
      * Gets the blue component of the RGB color.
      *
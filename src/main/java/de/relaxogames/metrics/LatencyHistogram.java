@@ -0,0 +1,110 @@
+package de.relaxogames.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free histogram of durations in nanoseconds.
+ * <p>
+ * Durations are counted in buckets by powers of two, so recording is a bit count and a
+ * {@link LongAdder} increment. Percentiles are therefore approximated by the upper bound
+ * of their bucket, which is precise enough to spot regressions and outliers.
+ * </p>
+ */
+public final class LatencyHistogram {
+
+    private static final int BUCKETS = 64;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Long::max, 0);
+
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) buckets[i] = new LongAdder();
+    }
+
+    /**
+     * @param nanos the measured duration
+     */
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        // Bucket i holds the durations from 2^(i-1) to 2^i - 1
+        buckets[Math.min(BUCKETS - Long.numberOfLeadingZeros(nanos), BUCKETS - 1)].increment();
+        count.increment();
+        total.add(nanos);
+        max.accumulate(nanos);
+    }
+
+    /**
+     * @return the current state of the histogram
+     */
+    public Snapshot snapshot() {
+        long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) counts[i] = buckets[i].sum();
+        return new Snapshot(count.sum(), total.sum(), max.get(), counts);
+    }
+
+    /**
+     * Resets the histogram.
+     */
+    public void reset() {
+        for (LongAdder bucket : buckets) bucket.reset();
+        count.reset();
+        total.reset();
+        max.reset();
+    }
+
+    /**
+     * An immutable state of a {@link LatencyHistogram}.
+     */
+    public static final class Snapshot {
+        private final long count;
+        private final long totalNanos;
+        private final long maxNanos;
+        private final long[] buckets;
+
+        private Snapshot(long count, long totalNanos, long maxNanos, long[] buckets) {
+            this.count = count;
+            this.totalNanos = totalNanos;
+            this.maxNanos = maxNanos;
+            this.buckets = buckets;
+        }
+
+        public long count() {
+            return count;
+        }
+
+        public long totalNanos() {
+            return totalNanos;
+        }
+
+        public long maxNanos() {
+            return maxNanos;
+        }
+
+        /**
+         * @return the average duration, 0 -- if nothing has been recorded
+         */
+        public double meanNanos() {
+            return count == 0 ? 0 : (double) totalNanos / count;
+        }
+
+        /**
+         * @param percentile the percentile between 0 and 100, e.g. 99
+         * @return the upper bound of the duration below which the given percentage of the recorded durations lies
+         */
+        public long percentileNanos(double percentile) {
+            long recorded = 0;
+            for (long bucket : buckets) recorded += bucket;
+            if (recorded == 0) return 0;
+            long rank = (long) Math.ceil(recorded * Math.min(100, Math.max(0, percentile)) / 100.0);
+            long seen = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                seen += buckets[i];
+                if (seen >= rank && buckets[i] > 0) return Math.min(i == 0 ? 0 : (1L << i) - 1, maxNanos);
+            }
+            return maxNanos;
+        }
+    }
+}
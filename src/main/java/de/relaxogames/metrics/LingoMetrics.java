@@ -0,0 +1,348 @@
+package de.relaxogames.metrics;
+
+import com.zaxxer.hikari.HikariPoolMXBean;
+import de.relaxogames.Prefixes;
+import de.relaxogames.api.Lingo;
+import de.relaxogames.languages.Locale;
+import de.relaxogames.sql.LingoSQL;
+import de.relaxogames.sql.LocaleCache;
+import de.relaxogames.sql.SQLConnector;
+import de.relaxogames.sql.SQLingos;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Collects the metrics of Lingo: message lookups and missing keys per locale, the durations of
+ * formatting messages and of every {@link SQLingos} statement, the {@link LocaleCache} hit rate
+ * and the state of the connection pool.
+ * <p>
+ * Metrics are disabled by default ({@code metrics} in the configuration). While disabled, every
+ * recording method returns after reading a single flag and {@link #start()} does not even read
+ * the clock, so the lookup path of {@link Lingo} stays as fast as without metrics.
+ * </p>
+ * <p>
+ * The metrics can be read with {@link #snapshot()}, via JMX as {@value #OBJECT_NAME}, or pushed
+ * to a {@link MetricsExporter} in a fixed interval.
+ * </p>
+ */
+public final class LingoMetrics {
+
+    public static final String OBJECT_NAME = "de.relaxogames.lingo:type=Metrics";
+
+    /**
+     * The kinds of rendering that are measured.
+     */
+    public enum Render {
+        /** Filling the placeholders of a raw message, e.g. {@link Lingo#format(Locale, String, Object...)}. */
+        STRING,
+        /** Building the {@link net.kyori.adventure.text.Component} of a message with placeholders. */
+        COMPONENT,
+        /** Serializing a formatted message into its legacy form. */
+        LEGACY
+    }
+
+    private static volatile boolean enabled;
+
+    private static final LocaleCounter LOOKUPS = new LocaleCounter();
+    private static final Map<Render, LatencyHistogram> RENDERS = new EnumMap<>(Render.class);
+    private static final Map<SQLingos, LatencyHistogram> QUERIES = new EnumMap<>(SQLingos.class);
+    private static final List<MetricsExporter> EXPORTERS = new CopyOnWriteArrayList<>();
+
+    private static ScheduledExecutorService exportScheduler;
+    private static ObjectName registeredName;
+
+    static {
+        for (Render render : Render.values()) RENDERS.put(render, new LatencyHistogram());
+        for (SQLingos statement : SQLingos.values()) QUERIES.put(statement, new LatencyHistogram());
+    }
+
+    private LingoMetrics() {
+    }
+
+    /**
+     * Applies the configuration. Called by {@link Lingo} on start.
+     *
+     * @param enabled               true -- if metrics should be recorded
+     * @param jmx                   true -- if the metrics should be registered as MBean
+     * @param exportIntervalSeconds the interval the {@link MetricsExporter}s are called in, 0 -- never
+     */
+    public static synchronized void configure(boolean enabled, boolean jmx, long exportIntervalSeconds) {
+        LingoMetrics.enabled = enabled;
+        if (jmx) registerMBean();
+        else unregisterMBean();
+
+        if (exportScheduler != null) exportScheduler.shutdownNow();
+        exportScheduler = null;
+        if (exportIntervalSeconds <= 0) return;
+        exportScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Lingo-Metrics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        exportScheduler.scheduleAtFixedRate(LingoMetrics::exportNow, exportIntervalSeconds, exportIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stops the exports and unregisters the MBean. Called by {@link Lingo#shutdown()}.
+     */
+    public static synchronized void shutdown() {
+        if (exportScheduler != null) exportScheduler.shutdownNow();
+        exportScheduler = null;
+        unregisterMBean();
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Turns the recording on or off at runtime. Recorded values are kept.
+     *
+     * @param enabled true -- if metrics should be recorded
+     */
+    public static void setEnabled(boolean enabled) {
+        LingoMetrics.enabled = enabled;
+    }
+
+    /**
+     * Starts a measurement.
+     *
+     * @return the current {@link System#nanoTime()}, or 0 if metrics are disabled
+     */
+    public static long start() {
+        return enabled ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * @param locale the requested {@link Locale}
+     */
+    public static void recordLookup(Locale locale) {
+        if (enabled) LOOKUPS.increment(locale);
+    }
+
+    /**
+     * @param render the kind of rendering
+     * @param start  the value returned by {@link #start()}
+     */
+    public static void recordRender(Render render, long start) {
+        if (start != 0L) RENDERS.get(render).record(System.nanoTime() - start);
+    }
+
+    /**
+     * @param statement the executed statement
+     * @param start     the value returned by {@link #start()}
+     */
+    public static void recordQuery(SQLingos statement, long start) {
+        if (start != 0L) QUERIES.get(statement).record(System.nanoTime() - start);
+    }
+
+    /**
+     * @return the current state of all metrics
+     */
+    public static MetricsSnapshot snapshot() {
+        Map<Render, LatencyHistogram.Snapshot> renders = new EnumMap<>(Render.class);
+        for (Map.Entry<Render, LatencyHistogram> entry : RENDERS.entrySet()) renders.put(entry.getKey(), entry.getValue().snapshot());
+        Map<SQLingos, LatencyHistogram.Snapshot> queries = new EnumMap<>(SQLingos.class);
+        for (Map.Entry<SQLingos, LatencyHistogram> entry : QUERIES.entrySet()) queries.put(entry.getKey(), entry.getValue().snapshot());
+
+        Lingo lingo = Lingo.getLibrary();
+        Map<Locale, Long> missingKeys = lingo == null ? Map.of() : lingo.getMissingKeyCounts();
+        LocaleCache cache = LingoSQL.localeCache();
+        HikariPoolMXBean pool = SQLConnector.poolMXBean();
+        return new MetricsSnapshot(System.currentTimeMillis(), LOOKUPS.snapshot(), missingKeys, renders, queries,
+                cache.hitCount(), cache.missCount(), cache.evictionCount(), cache.size(),
+                pool == null ? -1 : pool.getActiveConnections(),
+                pool == null ? -1 : pool.getIdleConnections(),
+                pool == null ? -1 : pool.getThreadsAwaitingConnection(),
+                pool == null ? -1 : pool.getTotalConnections());
+    }
+
+    /**
+     * Resets the lookup counts and durations. The counters of the {@link LocaleCache}
+     * and the missing keys of {@link Lingo} are not affected.
+     */
+    public static void reset() {
+        LOOKUPS.reset();
+        for (LatencyHistogram histogram : RENDERS.values()) histogram.reset();
+        for (LatencyHistogram histogram : QUERIES.values()) histogram.reset();
+    }
+
+    /**
+     * @param exporter receives the metrics every {@code metrics-export-interval} seconds
+     */
+    public static void addExporter(MetricsExporter exporter) {
+        EXPORTERS.add(exporter);
+    }
+
+    public static void removeExporter(MetricsExporter exporter) {
+        EXPORTERS.remove(exporter);
+    }
+
+    /**
+     * Passes the current metrics to all exporters, regardless of the interval.
+     * Nothing is exported while metrics are disabled.
+     */
+    public static void exportNow() {
+        if (!enabled || EXPORTERS.isEmpty()) return;
+        MetricsSnapshot snapshot = snapshot();
+        for (MetricsExporter exporter : EXPORTERS) {
+            try {
+                exporter.export(snapshot);
+            } catch (RuntimeException e) {
+                System.getLogger(Prefixes.logPrefix()).log(System.Logger.Level.WARNING,
+                        "Metrics exporter " + exporter.getClass().getName() + " failed", e);
+            }
+        }
+    }
+
+    private static void registerMBean() {
+        if (registeredName != null) return;
+        try {
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (!server.isRegistered(name)) server.registerMBean(new Jmx(), name);
+            registeredName = name;
+        } catch (JMException e) {
+            System.getLogger(Prefixes.logPrefix()).log(System.Logger.Level.WARNING, "Could not register the metrics MBean", e);
+        }
+    }
+
+    private static void unregisterMBean() {
+        if (registeredName == null) return;
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(registeredName);
+        } catch (JMException ignored) {
+        }
+        registeredName = null;
+    }
+
+    private static <K> Map<String, Long> counts(Map<K, Long> counts) {
+        Map<String, Long> named = new LinkedHashMap<>();
+        for (Map.Entry<K, Long> entry : counts.entrySet()) named.put(entry.getKey().toString(), entry.getValue());
+        return named;
+    }
+
+    private static <K, V> Map<String, V> histograms(Map<K, LatencyHistogram.Snapshot> histograms,
+                                                   Function<LatencyHistogram.Snapshot, V> value) {
+        Map<String, V> named = new LinkedHashMap<>();
+        for (Map.Entry<K, LatencyHistogram.Snapshot> entry : histograms.entrySet()) {
+            if (entry.getValue().count() > 0) named.put(entry.getKey().toString(), value.apply(entry.getValue()));
+        }
+        return named;
+    }
+
+    private static final class Jmx implements LingoMetricsMXBean {
+
+        @Override
+        public boolean isEnabled() {
+            return LingoMetrics.isEnabled();
+        }
+
+        @Override
+        public void setEnabled(boolean enabled) {
+            LingoMetrics.setEnabled(enabled);
+        }
+
+        @Override
+        public Map<String, Long> getLookupCounts() {
+            return counts(LOOKUPS.snapshot());
+        }
+
+        @Override
+        public Map<String, Long> getMissingKeyCounts() {
+            Lingo lingo = Lingo.getLibrary();
+            return lingo == null ? Map.of() : counts(lingo.getMissingKeyCounts());
+        }
+
+        @Override
+        public Map<String, Double> getRenderMeanNanos() {
+            return histograms(snapshot().renders(), LatencyHistogram.Snapshot::meanNanos);
+        }
+
+        @Override
+        public Map<String, Long> getRenderP99Nanos() {
+            return histograms(snapshot().renders(), histogram -> histogram.percentileNanos(99));
+        }
+
+        @Override
+        public Map<String, Long> getQueryCounts() {
+            return histograms(snapshot().queries(), LatencyHistogram.Snapshot::count);
+        }
+
+        @Override
+        public Map<String, Double> getQueryMeanNanos() {
+            return histograms(snapshot().queries(), LatencyHistogram.Snapshot::meanNanos);
+        }
+
+        @Override
+        public Map<String, Long> getQueryP99Nanos() {
+            return histograms(snapshot().queries(), histogram -> histogram.percentileNanos(99));
+        }
+
+        @Override
+        public long getLocaleCacheHits() {
+            return LingoSQL.localeCache().hitCount();
+        }
+
+        @Override
+        public long getLocaleCacheMisses() {
+            return LingoSQL.localeCache().missCount();
+        }
+
+        @Override
+        public double getLocaleCacheHitRate() {
+            return LingoSQL.localeCache().hitRate();
+        }
+
+        @Override
+        public int getLocaleCacheSize() {
+            return LingoSQL.localeCache().size();
+        }
+
+        @Override
+        public int getPoolActiveConnections() {
+            HikariPoolMXBean pool = SQLConnector.poolMXBean();
+            return pool == null ? -1 : pool.getActiveConnections();
+        }
+
+        @Override
+        public int getPoolIdleConnections() {
+            HikariPoolMXBean pool = SQLConnector.poolMXBean();
+            return pool == null ? -1 : pool.getIdleConnections();
+        }
+
+        @Override
+        public int getPoolPendingThreads() {
+            HikariPoolMXBean pool = SQLConnector.poolMXBean();
+            return pool == null ? -1 : pool.getThreadsAwaitingConnection();
+        }
+
+        @Override
+        public int getPoolTotalConnections() {
+            HikariPoolMXBean pool = SQLConnector.poolMXBean();
+            return pool == null ? -1 : pool.getTotalConnections();
+        }
+
+        @Override
+        public String getCircuitState() {
+            return LingoSQL.circuitBreaker().state().name();
+        }
+
+        @Override
+        public void reset() {
+            LingoMetrics.reset();
+        }
+    }
+}
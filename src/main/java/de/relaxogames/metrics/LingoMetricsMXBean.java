@@ -0,0 +1,48 @@
+package de.relaxogames.metrics;
+
+import java.util.Map;
+
+/**
+ * The JMX view of {@link LingoMetrics}, registered as {@value LingoMetrics#OBJECT_NAME}.
+ * Durations are in nanoseconds.
+ */
+public interface LingoMetricsMXBean {
+
+    boolean isEnabled();
+
+    void setEnabled(boolean enabled);
+
+    Map<String, Long> getLookupCounts();
+
+    Map<String, Long> getMissingKeyCounts();
+
+    Map<String, Double> getRenderMeanNanos();
+
+    Map<String, Long> getRenderP99Nanos();
+
+    Map<String, Long> getQueryCounts();
+
+    Map<String, Double> getQueryMeanNanos();
+
+    Map<String, Long> getQueryP99Nanos();
+
+    long getLocaleCacheHits();
+
+    long getLocaleCacheMisses();
+
+    double getLocaleCacheHitRate();
+
+    int getLocaleCacheSize();
+
+    int getPoolActiveConnections();
+
+    int getPoolIdleConnections();
+
+    int getPoolPendingThreads();
+
+    int getPoolTotalConnections();
+
+    String getCircuitState();
+
+    void reset();
+}
@@ -0,0 +1,62 @@
+package de.relaxogames.metrics;
+
+import de.relaxogames.languages.Locale;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A counter per {@link Locale}.
+ * <p>
+ * The counters are stored in an array indexed by {@link Locale#id()}, so counting is a
+ * single array access and an uncontended {@link LongAdder} increment. The array grows
+ * when locales are registered later.
+ * </p>
+ */
+public final class LocaleCounter {
+
+    private volatile LongAdder[] counters = new LongAdder[0];
+
+    /**
+     * @param locale the {@link Locale} to count for
+     */
+    public void increment(Locale locale) {
+        LongAdder[] current = counters;
+        int id = locale.id();
+        (id < current.length ? current[id] : grow(id)).increment();
+    }
+
+    private synchronized LongAdder grow(int id) {
+        LongAdder[] current = counters;
+        if (id >= current.length) {
+            int size = current.length;
+            current = Arrays.copyOf(current, Math.max(id + 1, Locale.count()));
+            for (int i = size; i < current.length; i++) current[i] = new LongAdder();
+            counters = current;
+        }
+        return current[id];
+    }
+
+    /**
+     * @return the current counts by {@link Locale} ordered by id, locales that have not been counted are left out
+     */
+    public Map<Locale, Long> snapshot() {
+        Map<Locale, Long> counts = new LinkedHashMap<>();
+        LongAdder[] current = counters;
+        Locale[] locales = Locale.values();
+        for (int id = 0; id < current.length && id < locales.length; id++) {
+            long count = current[id].sum();
+            if (count > 0) counts.put(locales[id], count);
+        }
+        return counts;
+    }
+
+    /**
+     * Resets all counts to 0.
+     */
+    public void reset() {
+        for (LongAdder counter : counters) counter.reset();
+    }
+}
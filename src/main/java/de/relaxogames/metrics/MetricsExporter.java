@@ -0,0 +1,17 @@
+package de.relaxogames.metrics;
+
+/**
+ * Receives the metrics of Lingo in a fixed interval, e.g. to push them to a monitoring system.
+ * <p>
+ * Exporters are registered with {@link LingoMetrics#addExporter(MetricsExporter)} and called on
+ * the metrics thread every {@code metrics-export-interval} seconds while metrics are enabled.
+ * </p>
+ */
+@FunctionalInterface
+public interface MetricsExporter {
+
+    /**
+     * @param snapshot the current metrics
+     */
+    void export(MetricsSnapshot snapshot);
+}
@@ -0,0 +1,134 @@
+package de.relaxogames.metrics;
+
+import de.relaxogames.languages.Locale;
+import de.relaxogames.sql.SQLingos;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * An immutable state of all metrics of Lingo, see {@link LingoMetrics#snapshot()}.
+ * <p>
+ * Counters are totals since the metrics have been enabled. Pool values are {@code -1}
+ * if the database is not connected.
+ * </p>
+ */
+public final class MetricsSnapshot {
+
+    private final long timestamp;
+    private final Map<Locale, Long> lookups;
+    private final Map<Locale, Long> missingKeys;
+    private final Map<LingoMetrics.Render, LatencyHistogram.Snapshot> renders;
+    private final Map<SQLingos, LatencyHistogram.Snapshot> queries;
+    private final long localeCacheHits;
+    private final long localeCacheMisses;
+    private final long localeCacheEvictions;
+    private final int localeCacheSize;
+    private final int poolActive;
+    private final int poolIdle;
+    private final int poolPending;
+    private final int poolTotal;
+
+    MetricsSnapshot(long timestamp, Map<Locale, Long> lookups, Map<Locale, Long> missingKeys,
+                    Map<LingoMetrics.Render, LatencyHistogram.Snapshot> renders, Map<SQLingos, LatencyHistogram.Snapshot> queries,
+                    long localeCacheHits, long localeCacheMisses, long localeCacheEvictions, int localeCacheSize,
+                    int poolActive, int poolIdle, int poolPending, int poolTotal) {
+        this.timestamp = timestamp;
+        this.lookups = Collections.unmodifiableMap(lookups);
+        this.missingKeys = Collections.unmodifiableMap(missingKeys);
+        this.renders = Collections.unmodifiableMap(renders);
+        this.queries = Collections.unmodifiableMap(queries);
+        this.localeCacheHits = localeCacheHits;
+        this.localeCacheMisses = localeCacheMisses;
+        this.localeCacheEvictions = localeCacheEvictions;
+        this.localeCacheSize = localeCacheSize;
+        this.poolActive = poolActive;
+        this.poolIdle = poolIdle;
+        this.poolPending = poolPending;
+        this.poolTotal = poolTotal;
+    }
+
+    /**
+     * @return the time the snapshot has been taken, in milliseconds since the epoch
+     */
+    public long timestamp() {
+        return timestamp;
+    }
+
+    /**
+     * @return the message lookups by requested {@link Locale}
+     */
+    public Map<Locale, Long> lookups() {
+        return lookups;
+    }
+
+    /**
+     * @return the lookups of missing keys by requested {@link Locale}
+     */
+    public Map<Locale, Long> missingKeys() {
+        return missingKeys;
+    }
+
+    /**
+     * @return the durations of formatting messages with placeholders
+     */
+    public Map<LingoMetrics.Render, LatencyHistogram.Snapshot> renders() {
+        return renders;
+    }
+
+    /**
+     * @return the durations of the database statements, including the time to get a connection
+     */
+    public Map<SQLingos, LatencyHistogram.Snapshot> queries() {
+        return queries;
+    }
+
+    public long localeCacheHits() {
+        return localeCacheHits;
+    }
+
+    public long localeCacheMisses() {
+        return localeCacheMisses;
+    }
+
+    public long localeCacheEvictions() {
+        return localeCacheEvictions;
+    }
+
+    public int localeCacheSize() {
+        return localeCacheSize;
+    }
+
+    /**
+     * @return the share of locale cache lookups that were hits, between 0 and 1
+     */
+    public double localeCacheHitRate() {
+        long requests = localeCacheHits + localeCacheMisses;
+        return requests == 0 ? 0 : (double) localeCacheHits / requests;
+    }
+
+    /**
+     * @return the connections currently in use
+     */
+    public int poolActive() {
+        return poolActive;
+    }
+
+    /**
+     * @return the connections waiting in the pool
+     */
+    public int poolIdle() {
+        return poolIdle;
+    }
+
+    /**
+     * @return the threads waiting for a connection
+     */
+    public int poolPending() {
+        return poolPending;
+    }
+
+    public int poolTotal() {
+        return poolTotal;
+    }
+}
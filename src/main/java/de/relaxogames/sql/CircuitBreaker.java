@@ -0,0 +1,202 @@
+package de.relaxogames.sql;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stops database access for a while after repeated connection failures.
+ * <p>
+ * While the database is down, every statement would wait for the connection timeout of the
+ * pool before failing, so threads pile up and the server lags. The breaker counts consecutive
+ * failures and opens once the threshold is reached. While open, statements are rejected
+ * immediately. After the open time a single trial statement is let through (half open): if it
+ * succeeds, the breaker closes again, otherwise it stays open for another period.
+ * </p>
+ * <p>
+ * State changes can be observed with {@link #addListener(Listener)}.
+ * </p>
+ */
+public class CircuitBreaker {
+
+    /**
+     * The states of a {@link CircuitBreaker}.
+     */
+    public enum State {
+        /** Statements are executed normally. */
+        CLOSED,
+        /** Statements are rejected without contacting the database. */
+        OPEN,
+        /** A single trial statement decides whether the breaker closes again. */
+        HALF_OPEN
+    }
+
+    /**
+     * A granted request, returned by {@link #tryAcquire()}.
+     */
+    public enum Permit {
+        /** A statement executed while the breaker is closed. */
+        REGULAR,
+        /** The single trial statement of a half open breaker. */
+        TRIAL
+    }
+
+    /**
+     * Is notified whenever a {@link CircuitBreaker} changes its state.
+     */
+    @FunctionalInterface
+    public interface Listener {
+
+        /**
+         * Called on the thread that caused the change, after the change has happened.
+         *
+         * @param from the previous state
+         * @param to   the new state
+         */
+        void onStateChange(State from, State to);
+    }
+
+    private volatile int failureThreshold;
+    private volatile long openNanos;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private volatile State state = State.CLOSED;
+    private volatile int failures;
+    private long openedAt;
+    private boolean trialRunning;
+
+    /**
+     * @param failureThreshold the amount of consecutive failures that opens the breaker
+     * @param openMillis       how long the breaker stays open before a trial statement is allowed
+     */
+    public CircuitBreaker(int failureThreshold, long openMillis) {
+        configure(failureThreshold, openMillis);
+    }
+
+    /**
+     * Changes the thresholds without resetting the state or the registered listeners.
+     *
+     * @param failureThreshold the amount of consecutive failures that opens the breaker
+     * @param openMillis       how long the breaker stays open before a trial statement is allowed
+     */
+    public synchronized void configure(int failureThreshold, long openMillis) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, openMillis));
+    }
+
+    /**
+     * @return the current {@link State}
+     */
+    public State state() {
+        return state;
+    }
+
+    /**
+     * @return {@code true} if statements are currently rejected
+     */
+    public boolean isOpen() {
+        return state != State.CLOSED;
+    }
+
+    /**
+     * @param listener is notified about every state change
+     */
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * @param listener a listener registered by {@link #addListener(Listener)}
+     */
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Checks whether a statement may be executed. Every granted request has to be completed with
+     * {@link #recordSuccess(Permit)}, {@link #recordFailure(Permit)} or {@link #release(Permit)}.
+     * Only the holder of the {@link Permit#TRIAL} permit decides whether a half open breaker closes.
+     *
+     * @return the {@link Permit} of the statement, or {@code null} if it may not be executed
+     */
+    public Permit tryAcquire() {
+        if (state == State.CLOSED) return Permit.REGULAR;
+        State from;
+        synchronized (this) {
+            if (state == State.CLOSED) return Permit.REGULAR;
+            if (trialRunning) return null;
+            if (state == State.OPEN && System.nanoTime() - openedAt < openNanos) return null;
+            trialRunning = true;
+            if (state == State.HALF_OPEN) return Permit.TRIAL;
+            from = transition(State.HALF_OPEN);
+        }
+        fire(from, State.HALF_OPEN);
+        return Permit.TRIAL;
+    }
+
+    /**
+     * Records a statement that reached the database. Statements granted before the breaker opened
+     * do not close it, only the trial statement does.
+     *
+     * @param permit the permit of the statement
+     */
+    public void recordSuccess(Permit permit) {
+        if (permit == Permit.REGULAR && (state != State.CLOSED || failures == 0)) return;
+        State from;
+        synchronized (this) {
+            if (permit == Permit.REGULAR) {
+                if (state == State.CLOSED) failures = 0;
+                return;
+            }
+            failures = 0;
+            trialRunning = false;
+            if (state == State.CLOSED) return;
+            from = transition(State.CLOSED);
+        }
+        fire(from, State.CLOSED);
+    }
+
+    /**
+     * Records a statement that failed because the database could not be reached.
+     *
+     * @param permit the permit of the statement
+     */
+    public void recordFailure(Permit permit) {
+        State from;
+        synchronized (this) {
+            if (permit == Permit.TRIAL) {
+                trialRunning = false;
+            } else if (state != State.CLOSED || ++failures < failureThreshold) {
+                return;
+            }
+            if (state == State.OPEN) return;
+            openedAt = System.nanoTime();
+            from = transition(State.OPEN);
+        }
+        fire(from, State.OPEN);
+    }
+
+    /**
+     * Completes a granted request that neither reached the database nor failed because of it,
+     * so the next trial statement is not blocked.
+     *
+     * @param permit the permit of the statement
+     */
+    public void release(Permit permit) {
+        if (permit != Permit.TRIAL) return;
+        synchronized (this) {
+            trialRunning = false;
+        }
+    }
+
+    private State transition(State to) {
+        State from = state;
+        state = to;
+        return from;
+    }
+
+    private void fire(State from, State to) {
+        for (Listener listener : listeners) {
+            listener.onStateChange(from, to);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package de.relaxogames.sql;
+
+import de.relaxogames.languages.Locale;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.function.BiConsumer;
+
+/**
+ * A {@link LocaleInvalidationChannel} between several channels of the same JVM.
+ * <p>
+ * Changes are delivered synchronously to every other started channel of the same group.
+ * It stands in for a real network, e.g. to test several simulated servers in one process.
+ * </p>
+ */
+public class InMemoryInvalidationChannel implements LocaleInvalidationChannel {
+
+    private static final Set<InMemoryInvalidationChannel> DEFAULT_GROUP = new CopyOnWriteArraySet<>();
+
+    private final Set<InMemoryInvalidationChannel> group;
+    private volatile BiConsumer<UUID, Locale> listener;
+
+    /**
+     * Creates a channel connected to all other channels created with this constructor.
+     */
+    public InMemoryInvalidationChannel() {
+        this(DEFAULT_GROUP);
+    }
+
+    /**
+     * @param group the channels that exchange their changes, shared by all members
+     */
+    public InMemoryInvalidationChannel(Set<InMemoryInvalidationChannel> group) {
+        this.group = group;
+    }
+
+    @Override
+    public void start(BiConsumer<UUID, Locale> listener) {
+        this.listener = listener;
+        group.add(this);
+    }
+
+    @Override
+    public void publish(UUID uuid, Locale locale) {
+        for (InMemoryInvalidationChannel channel : group) {
+            BiConsumer<UUID, Locale> receiver = channel.listener;
+            if (channel != this && receiver != null) receiver.accept(uuid, locale);
+        }
+    }
+
+    @Override
+    public void close() {
+        group.remove(this);
+        listener = null;
+    }
+}
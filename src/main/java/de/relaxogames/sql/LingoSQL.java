@@ -1,10 +1,23 @@
 package de.relaxogames.sql;
 
 import de.relaxogames.api.FileManager;
+import de.relaxogames.api.Lingo;
+import de.relaxogames.exceptions.DatabaseUnavailable;
 import de.relaxogames.languages.Locale;
+import de.relaxogames.metrics.LingoMetrics;
 
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
 
 /**
  * Provides database access for player locale operations in the RelaxoGames language system.
@@ -12,12 +25,20 @@ import java.util.UUID;
  * This class handles:
  * <ul>
  *     <li>Initializing the database table for storing player locales</li>
+ *     <li>Resolving a player's locale and creating the entry in a single round trip</li>
+ *     <li>Preloading the locales of many players at once</li>
  *     <li>Loading a player's locale from the database</li>
  *     <li>Updating or inserting a player's locale in the database</li>
  *     <li>Checking whether a player entry exists</li>
+ *     <li>Applying locale changes of other servers, see {@link LocaleInvalidationChannel}</li>
  * </ul>
  * </p>
  * <p>
+ * All statements run through a {@link SQLGuard}, which retries transient failures and opens a
+ * {@link CircuitBreaker} while the database is down. Locale lookups then fall back to the cached
+ * locale or {@link Locale#system_default} instead of throwing into the calling code.
+ * </p>
+ * <p>
  * Note: This class uses a static {@link Connection}, which may not be ideal in all environments.
  * Connection pooling with per-operation connections is recommended for better reliability.
  * </p>
@@ -25,43 +46,183 @@ import java.util.UUID;
 public class LingoSQL {
 
     private static final FileManager FM = new FileManager();
+    private static final int PRELOAD_CHUNK_SIZE = 500;
+    private static LocaleWriteBehind localeWriter;
+    private static final LocaleCache localeCache = new LocaleCache(5000, 30, TimeUnit.MINUTES);
+    private static volatile LocaleInvalidationChannel invalidationChannel;
+    private static final List<BiConsumer<UUID, Locale>> localeChangeListeners = new CopyOnWriteArrayList<>();
+    private static final SQLGuard guard = new SQLGuard(3, 100, 2000, new CircuitBreaker(5, 10000));
 
     /**
      * Initializes the locale storage table in the database if it does not already exist.
      * <p>
-     * Executes the SQL statement defined in {@link SQLingos#CREATE_LINGO_FIELD}.
-     * Throws a {@link RuntimeException} if an error occurs during table creation.
+     * Creates and updates the schema using the {@link SchemaMigrator}.
+     * Throws a {@link RuntimeException} if an error occurs during the migration.
      * </p>
      */
     public static void initialize() {
-        try (Connection dbConnection = connection()){
-            Statement st = dbConnection.createStatement();
-            st.execute(SQLingos.CREATE_LINGO_FIELD.getSql());
+        FileManager fileManager = Lingo.getLibrary().getFileManager();
+        // Reconfigured instead of replaced, so listeners registered on the breaker stay in place
+        guard.configure(fileManager.timeoutTryAmount(), fileManager.retryBackoff(), fileManager.retryBackoffMax());
+        guard.circuitBreaker().configure(fileManager.circuitFailureThreshold(), fileManager.circuitOpenTime());
+        try {
+            guard.execute(SchemaMigrator::migrate);
         } catch (SQLException e) {
             throw new RuntimeException("Failed to initialize locale table", e);
         }
+        if (localeWriter == null) {
+            localeWriter = new LocaleWriteBehind(fileManager.localeFlushInterval(), fileManager.localeFlushBatchSize());
+        }
+        // Reconfigured instead of replaced, so a reload keeps the cached players and the counters
+        localeCache.configure(fileManager.localeCacheSize(), fileManager.localeCacheExpire(), TimeUnit.MINUTES);
+        if (fileManager.isSyncingLocales() && invalidationChannel == null) {
+            setInvalidationChannel(new PollingInvalidationChannel(fileManager.localeSyncInterval(), fileManager.localeSyncLookback()));
+        }
+    }
+
+    /**
+     * Replaces the channel locale changes are exchanged with the other servers over.
+     * <p>
+     * The previous channel is closed. By default a {@link PollingInvalidationChannel} is used
+     * if {@code locale-sync} is enabled, otherwise changes of other servers are only seen once
+     * the cached locale expires.
+     * </p>
+     *
+     * @param channel the new {@link LocaleInvalidationChannel}, or {@code null} to stop syncing
+     */
+    public static synchronized void setInvalidationChannel(LocaleInvalidationChannel channel) {
+        LocaleInvalidationChannel previous = invalidationChannel;
+        invalidationChannel = null;
+        if (previous != null) previous.close();
+        if (channel == null) return;
+        channel.start(LingoSQL::applyRemoteChange);
+        invalidationChannel = channel;
+    }
+
+    /**
+     * Registers a listener that is notified about locale changes made on other servers.
+     * <p>
+     * Listeners are called on the thread of the {@link LocaleInvalidationChannel} and should
+     * return quickly, e.g. by handing the change over to the main thread.
+     * </p>
+     *
+     * @param listener is called with the UUID and the new {@link Locale} of the player
+     */
+    public static void addLocaleChangeListener(BiConsumer<UUID, Locale> listener) {
+        localeChangeListeners.add(listener);
+    }
+
+    /**
+     * @param listener a listener registered by {@link #addLocaleChangeListener(BiConsumer)}
+     */
+    public static void removeLocaleChangeListener(BiConsumer<UUID, Locale> listener) {
+        localeChangeListeners.remove(listener);
+    }
+
+    /**
+     * Applies a locale change of another server.
+     * <p>
+     * Only players that are cached are updated, all others load the new locale from the
+     * database anyway. A change that is still queued on this server is newer and wins.
+     * </p>
+     */
+    private static void applyRemoteChange(UUID uuid, Locale locale) {
+        LocaleWriteBehind writer = localeWriter;
+        if (writer != null && writer.pending(uuid) != null) return;
+        localeCache.refresh(uuid, locale);
+        for (BiConsumer<UUID, Locale> listener : localeChangeListeners) {
+            listener.accept(uuid, locale);
+        }
+    }
+
+    /**
+     * @return the {@link CircuitBreaker} protecting all locale queries, e.g. to observe its state changes
+     */
+    public static CircuitBreaker circuitBreaker() {
+        return guard.circuitBreaker();
+    }
+
+    /**
+     * @return the {@link SQLGuard} all locale statements run through
+     */
+    static SQLGuard guard() {
+        return guard;
+    }
+
+    /**
+     * @return the process-wide {@link LocaleCache} used by all {@link LingoSQL} instances
+     */
+    public static LocaleCache localeCache() {
+        return localeCache;
+    }
+
+    /**
+     * Writes all queued locale changes and stops the background writer.
+     * <p>
+     * Call this when your plugin gets disabled, otherwise changes made shortly
+     * before the shutdown may be lost.
+     * </p>
+     */
+    public static void shutdown() {
+        setInvalidationChannel(null);
+        if (localeWriter == null) return;
+        localeWriter.shutdown();
+        localeWriter = null;
     }
 
     /**
      * Loads the stored locale for a specific player by their UUID.
      * <p>
-     * If no locale is stored for the player, {@link Locale#system_default} is returned.
+     * Queued changes and the {@link LocaleCache} are checked first, the database
+     * is only queried on a cache miss. If no locale is stored for the player, {@link Locale#system_default} is returned.
      * Otherwise, the stored locale string is converted to a {@link Locale} instance
      * using {@link Locale#convertStringToLanguage(String)}.
      * </p>
+     * <p>
+     * If the database is unavailable, {@link Locale#system_default} is returned without caching it,
+     * so the locale is loaded again once the database is back.
+     * </p>
      *
      * @param uuid the unique identifier of the player
      * @return the stored {@link Locale}, or the system default if none exists
-     * @throws RuntimeException if a database access error occurs or the connection is invalid
+     * @throws RuntimeException if a database access error occurs
      */
     public Locale loadLocale(UUID uuid) {
+        return loadLocale(uuid, Locale.system_default);
+    }
+
+    /**
+     * Loads the stored locale of a player like {@link #loadLocale(UUID)}, but returns the given
+     * locale if the database is unavailable, e.g. the locale the player has been loaded with.
+     *
+     * @param uuid     the unique identifier of the player
+     * @param fallback the {@link Locale} returned while the database is unavailable
+     * @return the stored {@link Locale}, or the system default if none exists
+     * @throws RuntimeException if a database access error occurs
+     */
+    public Locale loadLocale(UUID uuid, Locale fallback) {
+        LocaleWriteBehind writer = localeWriter;
+        if (writer != null) {
+            Locale queued = writer.pending(uuid);
+            if (queued != null) return queued;
+        }
+        LocaleCache cache = localeCache;
+        Locale cached = cache.get(uuid);
+        if (cached != null) return cached;
         try {
-            try (Connection dbConnection = connection(); PreparedStatement pst = dbConnection.prepareStatement(SQLingos.SELECT_LINGO_LOCALE.getSql())) {
-                pst.setString(1, uuid.toString());
-                ResultSet set = pst.executeQuery();
-                if (!set.next()) return Locale.system_default;
-                return Locale.convertStringToLanguage(set.getString("locale"));
-            }
+            Locale locale = guard.execute(dbConnection -> {
+                long start = LingoMetrics.start();
+                try (PreparedStatement pst = dbConnection.prepareStatement(SQLingos.SELECT_LINGO_LOCALE.getSql())) {
+                    pst.setBytes(1, UUIDBytes.toBytes(uuid));
+                    ResultSet set = pst.executeQuery();
+                    LingoMetrics.recordQuery(SQLingos.SELECT_LINGO_LOCALE, start);
+                    return set.next() ? Locale.convertStringToLanguage(set.getString("locale")) : Locale.system_default;
+                }
+            });
+            cache.put(uuid, locale);
+            return locale;
+        } catch (DatabaseUnavailable e) {
+            return fallback;
         } catch (SQLException e) {
             throw new RuntimeException("Failed to load locale for UUID: " + uuid, e);
         }
@@ -75,87 +236,268 @@ public class LingoSQL {
      *
      * @param uuid   the unique identifier of the player
      * @param locale the {@link Locale} to set for the player
-     * @throws RuntimeException if a database access error occurs or the connection is invalid
+     * @throws DatabaseUnavailable if the database cannot be reached
+     * @throws RuntimeException if a database access error occurs
      */
     public void setLocale(UUID uuid, Locale locale) {
         try {
-            try (Connection dbConnection = connection(); PreparedStatement pst = dbConnection.prepareStatement(SQLingos.UPDATE_LINGO_LOCALE.getSql())) {
-                pst.setString(1, locale.getISO());
-                pst.setString(2, uuid.toString());
-                pst.execute();
-            }
+            guard.execute(dbConnection -> {
+                long start = LingoMetrics.start();
+                try (PreparedStatement pst = dbConnection.prepareStatement(SQLingos.UPDATE_LINGO_LOCALE.getSql())) {
+                    pst.setString(1, locale.getISO());
+                    pst.setBytes(2, UUIDBytes.toBytes(uuid));
+                    pst.execute();
+                }
+                LingoMetrics.recordQuery(SQLingos.UPDATE_LINGO_LOCALE, start);
+                return null;
+            });
+            localeCache.put(uuid, locale);
+            publish(uuid, locale);
         } catch (SQLException e) {
             throw new RuntimeException("Failed to set locale for UUID: " + uuid, e);
         }
     }
 
     /**
-     * Checks whether a player entry exists in the database.
+     * Resolves the locale of a player and creates the player's entry if it does not exist yet.
      * <p>
-     * Queries the database using the player's UUID to determine if an entry is present.
+     * Replaces the combination of {@link #hasEntry(UUID)} and {@link #insertEntry(UUID)}.
+     * Cached players cost no database access at all, every other player costs a single
+     * round trip using {@link SQLingos#FETCH_OR_CREATE_LINGO_ENTRY}. New players get
+     * {@link Locale#system_default}.
+     * </p>
+     * <p>
+     * If the database is unavailable, {@link Locale#system_default} is returned without creating
+     * the entry, the player is resolved again on the next lookup.
      * </p>
      *
      * @param uuid the unique identifier of the player
-     * @return {@code true} if the player has an entry in the database, {@code false} otherwise
-     * @throws RuntimeException if a database access error occurs or the connection is invalid
+     * @return the resolved {@link Locale} of the player
+     * @throws RuntimeException if a database access error occurs
      */
-    public boolean hasEntry(UUID uuid) {
+    public Locale fetchOrCreate(UUID uuid) {
+        Locale cached = cachedLocale(uuid);
+        if (cached != null) return cached;
         try {
-            try (Connection dbConnection = connection(); PreparedStatement pst = dbConnection.prepareStatement(SQLingos.SELECT_LINGO_LOCALE.getSql())) {
-                pst.setString(1, uuid.toString());
-                ResultSet set = pst.executeQuery();
-                return set.next();
-            }
+            Locale locale = guard.execute(dbConnection -> {
+                long start = LingoMetrics.start();
+                try (PreparedStatement pst = dbConnection.prepareStatement(SQLingos.FETCH_OR_CREATE_LINGO_ENTRY.getSql())) {
+                    pst.setString(1, uuid.toString());
+                    pst.setString(2, Locale.system_default.getISO());
+                    pst.setTimestamp(3, new Timestamp(System.currentTimeMillis()));
+                    ResultSet set = pst.executeQuery();
+                    LingoMetrics.recordQuery(SQLingos.FETCH_OR_CREATE_LINGO_ENTRY, start);
+                    return set.next() ? Locale.convertStringToLanguage(set.getString("locale")) : Locale.system_default;
+                }
+            });
+            localeCache.put(uuid, locale);
+            return locale;
+        } catch (DatabaseUnavailable e) {
+            return Locale.system_default;
         } catch (SQLException e) {
-            throw new RuntimeException("Failed to check existence of UUID: " + uuid, e);
+            throw new RuntimeException("Failed to fetch or create locale entry for UUID: " + uuid, e);
         }
     }
 
     /**
-     * Inserts a new player entry into the database with the default system locale.
+     * Loads the locales of many players at once and stores them in the {@link LocaleCache}.
      * <p>
-     * Uses {@link SQLingos#INSERT_LINGO_LOCALE} to create a new record with the UUID,
-     * the system default locale, and the current timestamp.
+     * Use this when a whole group of players is about to join, e.g. on server start or when
+     * a game round is moved to this server. Players that are already cached are skipped, the
+     * remaining ones are queried in chunks of {@value #PRELOAD_CHUNK_SIZE} using
+     * {@link SQLingos#SELECT_LINGO_LOCALES}. Players without an entry are created with
+     * {@link Locale#system_default} in a single batch.
+     * </p>
+     * <p>
+     * If the database is unavailable, players that are not cached resolve to {@link Locale#system_default}.
      * </p>
      *
-     * @param uuid the unique identifier of the player
-     * @throws RuntimeException if a database access error occurs or the connection is invalid
+     * @param uuids the unique identifiers of the players
+     * @return the resolved {@link Locale} of every given player
+     * @throws RuntimeException if a database access error occurs
      */
-    public void insertEntry(UUID uuid) {
+    public Map<UUID, Locale> preloadLocales(Collection<UUID> uuids) {
+        Map<UUID, Locale> locales = new HashMap<>(uuids.size() * 2);
+        List<UUID> missing = new ArrayList<>();
+        for (UUID uuid : new LinkedHashSet<>(uuids)) {
+            Locale cached = cachedLocale(uuid);
+            if (cached != null) locales.put(uuid, cached);
+            else missing.add(uuid);
+        }
+        if (missing.isEmpty()) return locales;
+
         try {
-            try (Connection dbConnection = connection(); PreparedStatement pst = dbConnection.prepareStatement(SQLingos.INSERT_LINGO_LOCALE.getSql())) {
+            guard.execute(dbConnection -> {
+                loadAndCreate(dbConnection, missing, locales);
+                return null;
+            });
+            return locales;
+        } catch (DatabaseUnavailable e) {
+            for (UUID uuid : missing) {
+                locales.putIfAbsent(uuid, Locale.system_default);
+            }
+            return locales;
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to preload locales for " + missing.size() + " players", e);
+        }
+    }
+
+    private void loadAndCreate(Connection dbConnection, List<UUID> missing, Map<UUID, Locale> locales) throws SQLException {
+        for (int from = 0; from < missing.size(); from += PRELOAD_CHUNK_SIZE) {
+            List<UUID> chunk = missing.subList(from, Math.min(from + PRELOAD_CHUNK_SIZE, missing.size()));
+            long start = LingoMetrics.start();
+            try (PreparedStatement pst = dbConnection.prepareStatement(SQLingos.SELECT_LINGO_LOCALES.getSql(chunk.size()))) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    pst.setBytes(i + 1, UUIDBytes.toBytes(chunk.get(i)));
+                }
+                ResultSet set = pst.executeQuery();
+                LingoMetrics.recordQuery(SQLingos.SELECT_LINGO_LOCALES, start);
+                while (set.next()) {
+                    UUID uuid = UUIDBytes.fromBytes(set.getBytes("uuid_bin"));
+                    Locale locale = Locale.convertStringToLanguage(set.getString("locale"));
+                    locales.put(uuid, locale);
+                    localeCache.put(uuid, locale);
+                }
+            }
+        }
+
+        List<UUID> created = new ArrayList<>();
+        for (UUID uuid : missing) {
+            if (!locales.containsKey(uuid)) created.add(uuid);
+        }
+        if (created.isEmpty()) return;
+
+        long start = LingoMetrics.start();
+        try (PreparedStatement pst = dbConnection.prepareStatement(SQLingos.INSERT_IGNORE_LINGO_LOCALE.getSql())) {
+            Timestamp now = new Timestamp(System.currentTimeMillis());
+            for (UUID uuid : created) {
                 pst.setString(1, uuid.toString());
                 pst.setString(2, Locale.system_default.getISO());
-                pst.setTimestamp(3, new Timestamp(System.currentTimeMillis()));
-                pst.execute();
+                pst.setTimestamp(3, now);
+                pst.addBatch();
             }
-        } catch (SQLException e) {
-            throw new RuntimeException("Failed to insert locale entry for UUID: " + uuid, e);
+            pst.executeBatch();
+        }
+        LingoMetrics.recordQuery(SQLingos.INSERT_IGNORE_LINGO_LOCALE, start);
+        for (UUID uuid : created) {
+            locales.put(uuid, Locale.system_default);
+            localeCache.put(uuid, Locale.system_default);
+        }
+    }
+
+    /**
+     * Runs {@link #preloadLocales(Collection)} on the {@link SQLExecutor}.
+     *
+     * @param uuids the unique identifiers of the players
+     * @return a future completed with the resolved {@link Locale} of every given player
+     */
+    public CompletableFuture<Map<UUID, Locale>> preloadLocalesAsync(Collection<UUID> uuids) {
+        return CompletableFuture.supplyAsync(() -> preloadLocales(uuids), SQLExecutor.executor());
+    }
+
+    /**
+     * Returns the locale of a player if it is known without querying the database.
+     *
+     * @param uuid the unique identifier of the player
+     * @return the queued or cached {@link Locale}, or {@code null} if the player is unknown
+     */
+    public Locale cachedLocale(UUID uuid) {
+        LocaleWriteBehind writer = localeWriter;
+        if (writer != null) {
+            Locale queued = writer.pending(uuid);
+            if (queued != null) return queued;
         }
+        return localeCache.get(uuid);
     }
 
     /**
-     * Retrieves a database connection from the configured HikariCP connection pool.
+     * Queues a locale change for a specific player.
      * <p>
-     * Each invocation returns a <em>new pooled connection</em> which must be closed
-     * after use. Closing the connection does <strong>not</strong> terminate the
-     * physical database connection; instead, it returns the connection back to
-     * the pool for reuse.
+     * The change is coalesced with other pending changes of the same player and
+     * written in a batch by {@link LocaleWriteBehind}. Until then, {@link #loadLocale(UUID)}
+     * already returns the queued locale. If the writer has not been initialized,
+     * the locale is written directly via {@link #setLocale(UUID, Locale)}.
      * </p>
      *
+     * @param uuid   the unique identifier of the player
+     * @param locale the {@link Locale} to set for the player
+     */
+    public void queueLocale(UUID uuid, Locale locale) {
+        localeCache.put(uuid, locale);
+        LocaleWriteBehind writer = localeWriter;
+        if (writer == null) {
+            setLocale(uuid, locale);
+            return;
+        }
+        writer.enqueue(uuid, locale);
+        publish(uuid, locale);
+    }
+
+    private static void publish(UUID uuid, Locale locale) {
+        LocaleInvalidationChannel channel = invalidationChannel;
+        if (channel != null) channel.publish(uuid, locale);
+    }
+
+    /**
+     * Checks whether a player entry exists in the database.
      * <p>
-     * This method does not perform any manual connection validation or reconnection
-     * logic. Connection health checks and automatic recovery are fully handled by
-     * HikariCP itself.
+     * Queries the database using the player's UUID to determine if an entry is present.
+     * Players that are cached in the {@link LocaleCache} are known to have an entry,
+     * players found in the database are added to the cache.
      * </p>
      *
-     * @return an active {@link Connection} from the connection pool
-     * @throws SQLException if a database access error occurs or the pool
-     *                      cannot provide a connection
-     * @throws IllegalStateException if the connection pool has not been initialized
-     *                              prior to calling this method
-     */
-    private static Connection connection() throws SQLException {
-        return SQLConnector.getConnection();
+     * @param uuid the unique identifier of the player
+     * @return {@code true} if the player has an entry in the database, {@code false} otherwise
+     * @throws DatabaseUnavailable if the database cannot be reached
+     * @throws RuntimeException if a database access error occurs
+     */
+    public boolean hasEntry(UUID uuid) {
+        if (cachedLocale(uuid) != null) return true;
+        try {
+            Locale locale = guard.execute(dbConnection -> {
+                long start = LingoMetrics.start();
+                try (PreparedStatement pst = dbConnection.prepareStatement(SQLingos.SELECT_LINGO_LOCALE.getSql())) {
+                    pst.setBytes(1, UUIDBytes.toBytes(uuid));
+                    ResultSet set = pst.executeQuery();
+                    LingoMetrics.recordQuery(SQLingos.SELECT_LINGO_LOCALE, start);
+                    return set.next() ? Locale.convertStringToLanguage(set.getString("locale")) : null;
+                }
+            });
+            if (locale == null) return false;
+            localeCache.put(uuid, locale);
+            return true;
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to check existence of UUID: " + uuid, e);
+        }
+    }
+
+    /**
+     * Inserts a new player entry into the database with the default system locale.
+     * <p>
+     * Uses {@link SQLingos#INSERT_LINGO_LOCALE} to create a new record with the UUID,
+     * the system default locale, and the current timestamp.
+     * </p>
+     *
+     * @param uuid the unique identifier of the player
+     * @throws DatabaseUnavailable if the database cannot be reached
+     * @throws RuntimeException if a database access error occurs
+     */
+    public void insertEntry(UUID uuid) {
+        try {
+            guard.execute(dbConnection -> {
+                long start = LingoMetrics.start();
+                try (PreparedStatement pst = dbConnection.prepareStatement(SQLingos.INSERT_LINGO_LOCALE.getSql())) {
+                    pst.setString(1, uuid.toString());
+                    pst.setString(2, Locale.system_default.getISO());
+                    pst.setTimestamp(3, new Timestamp(System.currentTimeMillis()));
+                    pst.execute();
+                }
+                LingoMetrics.recordQuery(SQLingos.INSERT_LINGO_LOCALE, start);
+                return null;
+            });
+            localeCache.put(uuid, Locale.system_default);
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to insert locale entry for UUID: " + uuid, e);
+        }
     }
 }
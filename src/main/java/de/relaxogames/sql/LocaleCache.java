@@ -0,0 +1,212 @@
+package de.relaxogames.sql;
+
+import de.relaxogames.languages.Locale;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded, process-wide cache of player locales in front of {@link LingoSQL}.
+ * <p>
+ * The cache keeps at most {@code maximumSize} players. When it is full, the player
+ * that has not been accessed for the longest time is evicted. Entries that have not
+ * been accessed within the configured expiry time are treated as missing and removed.
+ * </p>
+ * <p>
+ * Hits, misses and evictions are counted, so the effectiveness of the cache can be
+ * checked at runtime. All methods are thread-safe.
+ * </p>
+ */
+public class LocaleCache {
+
+    /** Guarded by {@link #entries}, like the expiry, since both can be changed by {@link #configure}. */
+    private int maximumSize;
+    private long expireAfterAccessNanos;
+    private final LinkedHashMap<UUID, Entry> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param maximumSize       the maximum amount of cached players
+     * @param expireAfterAccess the time after the last access at which an entry expires
+     * @param unit              the {@link TimeUnit} of {@code expireAfterAccess}
+     */
+    public LocaleCache(int maximumSize, long expireAfterAccess, TimeUnit unit) {
+        this.maximumSize = Math.max(1, maximumSize);
+        this.expireAfterAccessNanos = unit.toNanos(expireAfterAccess);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, Entry> eldest) {
+                if (size() <= LocaleCache.this.maximumSize) return false;
+                evictions.increment();
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Changes the size and expiry without dropping the cached players or resetting the counters.
+     * If the cache shrinks, the players that have not been accessed for the longest time are evicted.
+     *
+     * @param maximumSize       the maximum amount of cached players
+     * @param expireAfterAccess the time after the last access at which an entry expires
+     * @param unit              the {@link TimeUnit} of {@code expireAfterAccess}
+     */
+    public void configure(int maximumSize, long expireAfterAccess, TimeUnit unit) {
+        long now = System.nanoTime();
+        synchronized (entries) {
+            this.maximumSize = Math.max(1, maximumSize);
+            this.expireAfterAccessNanos = unit.toNanos(expireAfterAccess);
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (entries.size() > this.maximumSize && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+                evictions.increment();
+            }
+            expire(now);
+        }
+    }
+
+    /**
+     * @param uuid the unique identifier of the player
+     * @return the cached {@link Locale}, or {@code null} if the player is not cached or the entry expired
+     */
+    public Locale get(UUID uuid) {
+        long now = System.nanoTime();
+        synchronized (entries) {
+            Entry entry = entries.get(uuid);
+            if (entry == null) {
+                misses.increment();
+                return null;
+            }
+            if (now - entry.lastAccess > expireAfterAccessNanos) {
+                entries.remove(uuid);
+                evictions.increment();
+                misses.increment();
+                return null;
+            }
+            entry.lastAccess = now;
+            hits.increment();
+            return entry.locale;
+        }
+    }
+
+    /**
+     * Stores or replaces the cached locale of a player.
+     *
+     * @param uuid   the unique identifier of the player
+     * @param locale the {@link Locale} of the player
+     */
+    public void put(UUID uuid, Locale locale) {
+        long now = System.nanoTime();
+        synchronized (entries) {
+            entries.put(uuid, new Entry(locale, now));
+            expire(now);
+        }
+    }
+
+    /**
+     * Replaces the cached locale of a player, but only if the player is cached.
+     * Neither the access time nor the hit and miss counts are changed, so changes made on
+     * other servers do not prevent a player from expiring.
+     *
+     * @param uuid   the unique identifier of the player
+     * @param locale the new {@link Locale} of the player
+     * @return true -- if the player was cached and has been updated
+     */
+    public boolean refresh(UUID uuid, Locale locale) {
+        synchronized (entries) {
+            Entry entry = entries.get(uuid);
+            if (entry == null) return false;
+            entry.locale = locale;
+            return true;
+        }
+    }
+
+    /**
+     * Removes a player from the cache. The next lookup will load the locale from the database again.
+     *
+     * @param uuid the unique identifier of the player
+     */
+    public void invalidate(UUID uuid) {
+        synchronized (entries) {
+            entries.remove(uuid);
+        }
+    }
+
+    /**
+     * Removes all players from the cache.
+     */
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * @return the amount of currently cached players
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * @return the amount of lookups that were answered from the cache
+     */
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the amount of lookups that had to fall through to the database
+     */
+    public long missCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return the amount of entries removed because the cache was full or the entry expired
+     */
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return the ratio of hits to all lookups, or {@code 1.0} if there were no lookups yet
+     */
+    public double hitRate() {
+        long hitCount = hitCount();
+        long total = hitCount + missCount();
+        return total == 0 ? 1.0 : (double) hitCount / total;
+    }
+
+    /**
+     * Removes expired entries. Since the map is access ordered, expired entries are always at its head.
+     */
+    private void expire(long now) {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (now - iterator.next().lastAccess <= expireAfterAccessNanos) return;
+            iterator.remove();
+            evictions.increment();
+        }
+    }
+
+    private static final class Entry {
+        private Locale locale;
+        private long lastAccess;
+
+        private Entry(Locale locale, long lastAccess) {
+            this.locale = locale;
+            this.lastAccess = lastAccess;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package de.relaxogames.sql;
+
+import de.relaxogames.languages.Locale;
+
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+/**
+ * Propagates locale changes between the servers of a network.
+ * <p>
+ * Every server caches the locales of its players in the {@link LocaleCache}. When a player
+ * changes the language on one server, the channel tells all other servers, which then update
+ * their cached locale of the player. This keeps long-lived caches correct without asking the
+ * database on every lookup.
+ * </p>
+ *
+ * @see PollingInvalidationChannel
+ * @see InMemoryInvalidationChannel
+ * @see LingoSQL#setInvalidationChannel(LocaleInvalidationChannel)
+ */
+public interface LocaleInvalidationChannel extends AutoCloseable {
+
+    /**
+     * Starts receiving the changes made on other servers.
+     *
+     * @param listener is called with the UUID and the new {@link Locale} of every changed player
+     */
+    void start(BiConsumer<UUID, Locale> listener);
+
+    /**
+     * Announces a locale change made on this server.
+     *
+     * @param uuid   the unique identifier of the player
+     * @param locale the new {@link Locale} of the player
+     */
+    void publish(UUID uuid, Locale locale);
+
+    /**
+     * Stops receiving changes.
+     */
+    @Override
+    void close();
+}
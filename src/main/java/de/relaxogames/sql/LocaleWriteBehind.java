@@ -0,0 +1,179 @@
+package de.relaxogames.sql;
+
+import de.relaxogames.Prefixes;
+import de.relaxogames.exceptions.DatabaseUnavailable;
+import de.relaxogames.languages.Locale;
+import de.relaxogames.metrics.LingoMetrics;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Collects player locale changes and writes them to the database in batches.
+ * <p>
+ * Changes are coalesced per {@link UUID}, so a player switching the language several
+ * times between two flushes causes only one write. Pending changes are flushed:
+ * <ul>
+ *     <li>periodically, every configured flush interval</li>
+ *     <li>as soon as the amount of pending changes reaches the batch size</li>
+ *     <li>once more when {@link #shutdown()} is called</li>
+ * </ul>
+ * </p>
+ * <p>
+ * All writes run on a single daemon thread, so the amount of threads used for
+ * locale persistence no longer depends on the amount of players.
+ * </p>
+ */
+public class LocaleWriteBehind {
+
+    private final Map<UUID, Locale> pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final ScheduledExecutorService executor;
+    private final int batchSize;
+
+    /**
+     * @param flushInterval the delay in milliseconds between two periodic flushes
+     * @param batchSize     the maximum amount of rows written in one batch
+     */
+    public LocaleWriteBehind(long flushInterval, int batchSize) {
+        this.batchSize = Math.max(1, batchSize);
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Lingo-LocaleWriter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(1, flushInterval);
+        executor.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Queues a locale change. A change that is still pending for the same player is replaced.
+     *
+     * @param uuid   the unique identifier of the player
+     * @param locale the new {@link Locale} of the player
+     */
+    public void enqueue(UUID uuid, Locale locale) {
+        pending.put(uuid, locale);
+        if (pending.size() >= batchSize && flushRequested.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::flushQuietly);
+            } catch (RuntimeException e) {
+                flushRequested.set(false);
+            }
+        }
+    }
+
+    /**
+     * @param uuid the unique identifier of the player
+     * @return the queued {@link Locale} of the player, or {@code null} if nothing is pending
+     */
+    public Locale pending(UUID uuid) {
+        return pending.get(uuid);
+    }
+
+    /**
+     * @return the amount of players with a queued locale change
+     */
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Writes all pending locale changes to the database.
+     * <p>
+     * An entry is only removed from the queue once it has been written and was not
+     * replaced by a newer change in the meantime.
+     * </p>
+     *
+     * @return the amount of rows written
+     * @throws SQLException if a batch could not be written; unwritten changes stay queued
+     * @throws DatabaseUnavailable if the database cannot be reached; all changes stay queued
+     */
+    public synchronized int flush() throws SQLException {
+        int written = 0;
+        while (!pending.isEmpty()) {
+            List<Map.Entry<UUID, Locale>> batch = new ArrayList<>(Math.min(batchSize, pending.size()));
+            for (Map.Entry<UUID, Locale> entry : pending.entrySet()) {
+                batch.add(Map.entry(entry.getKey(), entry.getValue()));
+                if (batch.size() == batchSize) break;
+            }
+            writeBatch(batch);
+            for (Map.Entry<UUID, Locale> entry : batch) {
+                pending.remove(entry.getKey(), entry.getValue());
+            }
+            written += batch.size();
+        }
+        return written;
+    }
+
+    /**
+     * Stops the periodic flush and writes all changes that are still pending.
+     */
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) executor.shutdownNow();
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        flushQuietly();
+    }
+
+    private void flushQuietly() {
+        flushRequested.set(false);
+        try {
+            flush();
+        } catch (DatabaseUnavailable e) {
+            // The circuit breaker reports the outage, the changes stay queued until the database is back
+            System.getLogger(Prefixes.logPrefix()).log(System.Logger.Level.DEBUG,
+                    "Database unavailable, keeping " + pending.size() + " queued locale changes", e);
+        } catch (SQLException | RuntimeException e) {
+            System.getLogger(Prefixes.logPrefix()).log(System.Logger.Level.WARNING,
+                    "Failed to write " + pending.size() + " queued locale changes, retrying with the next flush", e);
+        }
+    }
+
+    private void writeBatch(List<Map.Entry<UUID, Locale>> batch) throws SQLException {
+        LingoSQL.guard().execute(dbConnection -> {
+            writeBatch(dbConnection, batch);
+            return null;
+        });
+    }
+
+    private void writeBatch(Connection dbConnection, List<Map.Entry<UUID, Locale>> batch) throws SQLException {
+        long start = LingoMetrics.start();
+        try (PreparedStatement pst = dbConnection.prepareStatement(SQLingos.UPSERT_LINGO_LOCALE.getSql())) {
+            boolean autoCommit = dbConnection.getAutoCommit();
+            dbConnection.setAutoCommit(false);
+            try {
+                Timestamp now = new Timestamp(System.currentTimeMillis());
+                for (Map.Entry<UUID, Locale> entry : batch) {
+                    pst.setString(1, entry.getKey().toString());
+                    pst.setString(2, entry.getValue().getISO());
+                    pst.setTimestamp(3, now);
+                    pst.addBatch();
+                }
+                pst.executeBatch();
+                dbConnection.commit();
+                LingoMetrics.recordQuery(SQLingos.UPSERT_LINGO_LOCALE, start);
+            } catch (SQLException e) {
+                dbConnection.rollback();
+                throw e;
+            } finally {
+                dbConnection.setAutoCommit(autoCommit);
+            }
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package de.relaxogames.sql;
+
+import de.relaxogames.Prefixes;
+import de.relaxogames.exceptions.DatabaseUnavailable;
+import de.relaxogames.languages.Locale;
+import de.relaxogames.metrics.LingoMetrics;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * A {@link LocaleInvalidationChannel} that polls the {@code general} table for changed locales.
+ * <p>
+ * Every locale write sets {@code locale_version} to the current time of the database clock in
+ * microseconds. The channel periodically fetches all rows with a newer version than the last one
+ * it has seen, so no additional infrastructure is needed. Publishing is a no-op, since the
+ * database write itself is the announcement.
+ * </p>
+ * <p>
+ * A transaction may commit after a later one, so its version can be older than versions that have
+ * already been seen. Every poll therefore looks back {@code lookback} milliseconds; rows that have
+ * been delivered with the same version before are skipped.
+ * </p>
+ */
+public class PollingInvalidationChannel implements LocaleInvalidationChannel {
+
+    private static final int POLL_LIMIT = 1000;
+    /** {@link #lastVersion} before the database clock could be read */
+    private static final long UNKNOWN_VERSION = Long.MIN_VALUE;
+
+    private final long intervalMillis;
+    private final long lookbackMicros;
+    private final Map<UUID, Long> delivered = new HashMap<>();
+    private ScheduledExecutorService executor;
+    private BiConsumer<UUID, Locale> listener;
+    private long lastVersion;
+
+    /**
+     * @param intervalMillis the time between two polls
+     * @param lookbackMillis how far each poll looks back for late commits
+     */
+    public PollingInvalidationChannel(long intervalMillis, long lookbackMillis) {
+        this.intervalMillis = Math.max(1, intervalMillis);
+        this.lookbackMicros = TimeUnit.MILLISECONDS.toMicros(Math.max(0, lookbackMillis));
+    }
+
+    @Override
+    public synchronized void start(BiConsumer<UUID, Locale> listener) {
+        if (executor != null) return;
+        this.listener = listener;
+        // Changes made before the start are already in the database, they are loaded on demand
+        try {
+            lastVersion = LingoSQL.guard().execute(this::currentVersion);
+        } catch (DatabaseUnavailable | SQLException e) {
+            // The first successful poll reads the clock instead
+            lastVersion = UNKNOWN_VERSION;
+            System.getLogger(Prefixes.logPrefix()).log(System.Logger.Level.WARNING,
+                    "Could not read the database clock, locale changes are synchronized once the database is reachable");
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Lingo-LocaleSync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::pollQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void publish(UUID uuid, Locale locale) {
+    }
+
+    @Override
+    public synchronized void close() {
+        if (executor == null) return;
+        executor.shutdownNow();
+        executor = null;
+        listener = null;
+    }
+
+    private void pollQuietly() {
+        try {
+            poll();
+        } catch (DatabaseUnavailable e) {
+            // The circuit breaker reports the outage, the changes are fetched once the database is back
+        } catch (SQLException | RuntimeException e) {
+            System.getLogger(Prefixes.logPrefix()).log(System.Logger.Level.WARNING,
+                    "Failed to poll locale changes, retrying with the next poll", e);
+        }
+    }
+
+    /**
+     * Fetches and delivers the changes since the last poll.
+     *
+     * @return the amount of delivered changes
+     * @throws SQLException if the changes could not be fetched
+     * @throws DatabaseUnavailable if the database cannot be reached
+     */
+    synchronized int poll() throws SQLException {
+        if (listener == null) return 0;
+        return LingoSQL.guard().execute(this::fetchChanges);
+    }
+
+    private int fetchChanges(Connection dbConnection) throws SQLException {
+        // Only changes within the look back window before the first successful poll are delivered
+        if (lastVersion == UNKNOWN_VERSION) lastVersion = currentVersion(dbConnection);
+        int count = 0;
+        long from = lastVersion - lookbackMicros;
+        int rows;
+        try (PreparedStatement pst = dbConnection.prepareStatement(SQLingos.SELECT_LOCALE_CHANGES.getSql())) {
+            do {
+                long start = LingoMetrics.start();
+                pst.setLong(1, from);
+                pst.setInt(2, POLL_LIMIT);
+                rows = 0;
+                try (ResultSet set = pst.executeQuery()) {
+                    LingoMetrics.recordQuery(SQLingos.SELECT_LOCALE_CHANGES, start);
+                    while (set.next()) {
+                        rows++;
+                        long version = set.getLong("locale_version");
+                        from = version;
+                        lastVersion = Math.max(lastVersion, version);
+                        UUID uuid = UUID.fromString(set.getString("uuid"));
+                        Long seen = delivered.put(uuid, version);
+                        if (seen != null && seen >= version) {
+                            delivered.put(uuid, seen);
+                            continue;
+                        }
+                        listener.accept(uuid, Locale.convertStringToLanguage(set.getString("locale")));
+                        count++;
+                    }
+                }
+            } while (rows == POLL_LIMIT);
+        }
+        // Versions older than the look back window are never fetched again
+        long oldest = lastVersion - lookbackMicros;
+        delivered.values().removeIf(version -> version < oldest);
+        return count;
+    }
+
+    private long currentVersion(Connection dbConnection) throws SQLException {
+        long start = LingoMetrics.start();
+        try (PreparedStatement pst = dbConnection.prepareStatement(SQLingos.SELECT_LOCALE_VERSION_NOW.getSql());
+             ResultSet set = pst.executeQuery()) {
+            LingoMetrics.recordQuery(SQLingos.SELECT_LOCALE_VERSION_NOW, start);
+            return set.next() ? set.getLong("now") : 0;
+        }
+    }
+}
@@ -2,12 +2,15 @@ package de.relaxogames.sql;
 
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import de.relaxogames.Prefixes;
 import de.relaxogames.api.FileManager;
 import de.relaxogames.api.Lingo;
 import de.relaxogames.exceptions.DriverLostConnection;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Provides a centralized and thread-safe way to manage the application's
@@ -15,12 +18,12 @@ import java.sql.SQLException;
  * <p>
  * The connector initializes a {@link HikariDataSource} on demand and exposes
  * methods to obtain database connections from the pool. Configuration values
- * (host, database, credentials) are loaded through {@link FileManager}.
+ * (host, port, database, credentials, pool and driver settings) are loaded through {@link FileManager}.
  * </p>
  */
 public class SQLConnector {
 
-    private static HikariDataSource dataSource;
+    private static volatile HikariDataSource dataSource;
     private static final FileManager fileManagement = Lingo.getLibrary().getFileManager();
 
     /**
@@ -31,17 +34,15 @@ public class SQLConnector {
      * {@link FileManager}. If the pool is already initialized, the method
      * returns immediately without modifying it.
      * </p>
+     * <p>
+     * If the database cannot be reached, creating the pool is tried
+     * {@code connection-timeout-try} times before giving up.
+     * </p>
      *
-     * @throws IllegalStateException if required JDBC driver classes are missing
+     * @throws DriverLostConnection if the JDBC driver is missing or the database cannot be reached
      */
-    public static Connection connect() {
-        if (dataSource != null) {
-            try {
-                return dataSource.getConnection();
-            } catch (SQLException e) {
-                throw new RuntimeException(e);
-            }
-        }
+    public static synchronized void connect() {
+        if (dataSource != null) return;
 
         try {
             Class.forName("org.mariadb.jdbc.Driver"); // Required for some environments
@@ -49,19 +50,58 @@ public class SQLConnector {
             throw new DriverLostConnection("MariaDB JDBC Driver could not be loaded.", e);
         }
 
+        HikariConfig config = createConfig();
+        int tries = Math.max(1, fileManagement.timeoutTryAmount());
+        for (int attempt = 1; ; attempt++) {
+            try {
+                dataSource = new HikariDataSource(config);
+                return;
+            } catch (RuntimeException e) {
+                if (attempt >= tries) {
+                    throw new DriverLostConnection("Could not connect to the database after " + attempt + " tries.", e);
+                }
+                System.getLogger(Prefixes.logPrefix()).log(System.Logger.Level.WARNING,
+                        "Could not connect to the database, retrying (" + attempt + "/" + tries + ")", e);
+                try {
+                    TimeUnit.SECONDS.sleep(1);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw new DriverLostConnection("Interrupted while connecting to the database.", interrupted);
+                }
+            }
+        }
+    }
+
+    /**
+     * Builds the pool configuration from the .properties file.
+     * <p>
+     * Besides the pool settings, the MariaDB driver is configured to prepare statements on the
+     * server and to cache them per connection, so Lingo's statements are parsed only once per
+     * connection. Batches, e.g. of {@link LocaleWriteBehind}, are sent as a single bulk command.
+     * </p>
+     */
+    private static HikariConfig createConfig() {
         HikariConfig config = new HikariConfig();
-        config.setJdbcUrl("jdbc:mariadb://" + fileManagement.host() + ":3306/" + fileManagement.database());
+        config.setJdbcUrl("jdbc:mariadb://" + fileManagement.host() + ":" + fileManagement.port() + "/" + fileManagement.database());
         config.setUsername(fileManagement.user());
         config.setPassword(fileManagement.password());
         config.setPoolName("SnorlaxLingo Helper");
-        config.setMaximumPoolSize(10);
 
-        dataSource = new HikariDataSource(config);
-        try {
-            return dataSource.getConnection();
-        } catch (SQLException e) {
-            throw new RuntimeException(e);
-        }
+        int maxSize = Math.max(1, fileManagement.poolMaxSize());
+        config.setMaximumPoolSize(maxSize);
+        config.setMinimumIdle(Math.min(maxSize, Math.max(0, fileManagement.poolMinIdle())));
+        config.setConnectionTimeout(fileManagement.poolConnectionTimeout());
+        config.setIdleTimeout(fileManagement.poolIdleTimeout());
+        config.setMaxLifetime(fileManagement.poolMaxLifetime());
+        config.setLeakDetectionThreshold(fileManagement.poolLeakDetection());
+
+        config.addDataSourceProperty("useServerPrepStmts", String.valueOf(fileManagement.isUsingServerPrepStmts()));
+        config.addDataSourceProperty("cachePrepStmts", String.valueOf(fileManagement.isCachingStatements()));
+        config.addDataSourceProperty("prepStmtCacheSize", String.valueOf(fileManagement.statementCacheSize()));
+        // Connector/J 3 replaced rewriteBatchedStatements with the bulk protocol
+        config.addDataSourceProperty("useBulkStmts", String.valueOf(fileManagement.isUsingBulkStatements()));
+        config.addDataSourceProperty("useBulkStmtsForInserts", String.valueOf(fileManagement.isUsingBulkStatements()));
+        return config;
     }
 
     /**
@@ -81,6 +121,29 @@ public class SQLConnector {
         return dataSource.getConnection();
     }
 
+    /**
+     * Closes the connection pool and all of its physical connections.
+     * <p>
+     * After this call {@link #connect()} has to be called again before
+     * connections can be retrieved.
+     * </p>
+     */
+    public static synchronized void disconnect() {
+        if (dataSource == null) return;
+        dataSource.close();
+        dataSource = null;
+    }
+
+    /**
+     * Provides the live statistics of the connection pool, e.g. for {@link de.relaxogames.metrics.LingoMetrics}.
+     *
+     * @return the {@link HikariPoolMXBean} of the pool, or {@code null} if the pool has not been initialized
+     */
+    public static HikariPoolMXBean poolMXBean() {
+        HikariDataSource source = dataSource;
+        return source == null ? null : source.getHikariPoolMXBean();
+    }
+
     /**
      * Checks whether the connection pool has been initialized.
      *
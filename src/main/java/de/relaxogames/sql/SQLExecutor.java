@@ -0,0 +1,141 @@
+package de.relaxogames.sql;
+
+import de.relaxogames.Prefixes;
+import de.relaxogames.api.FileManager;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Provides the executor that runs Lingo's asynchronous database work.
+ * <p>
+ * The amount of concurrently running tasks is limited to the configured amount of
+ * async threads, so no matter how many players request their locale at the same time,
+ * Lingo never creates more threads than that. On Java 21 or newer the tasks run on
+ * virtual threads, otherwise on a fixed pool of daemon platform threads.
+ * </p>
+ */
+public class SQLExecutor {
+
+    private static volatile Executor executor;
+    private static ExecutorService service;
+
+    /**
+     * Creates the executor with the settings of the given {@link FileManager}.
+     * An already existing executor is shut down gracefully.
+     *
+     * @param fileManager the {@link FileManager} providing the executor settings
+     */
+    public static synchronized void initialize(FileManager fileManager) {
+        ExecutorService previous = service;
+        if (executor instanceof BoundedExecutor) ((BoundedExecutor) executor).shutdown();
+        int threads = Math.max(1, fileManager.asyncThreads());
+        ThreadFactory virtualFactory = fileManager.useVirtualThreads() ? virtualThreadFactory() : null;
+        if (virtualFactory != null) {
+            service = null;
+            executor = new BoundedExecutor(virtualFactory, threads);
+        } else {
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(), platformThreadFactory());
+            pool.allowCoreThreadTimeOut(true);
+            service = pool;
+            executor = pool;
+        }
+        if (previous != null) previous.shutdown();
+    }
+
+    /**
+     * @return the executor for asynchronous database work, created with default settings if {@link #initialize(FileManager)} has not been called
+     */
+    public static Executor executor() {
+        Executor current = executor;
+        if (current != null) return current;
+        synchronized (SQLExecutor.class) {
+            if (executor == null) {
+                ThreadPoolExecutor pool = new ThreadPoolExecutor(4, 4, 60, TimeUnit.SECONDS,
+                        new LinkedBlockingQueue<>(), platformThreadFactory());
+                pool.allowCoreThreadTimeOut(true);
+                service = pool;
+                executor = pool;
+            }
+            return executor;
+        }
+    }
+
+    /**
+     * Stops accepting new tasks. Tasks that are already queued are still executed.
+     */
+    public static synchronized void shutdown() {
+        if (service != null) service.shutdown();
+        if (executor instanceof BoundedExecutor) ((BoundedExecutor) executor).shutdown();
+        service = null;
+        executor = null;
+    }
+
+    private static ThreadFactory platformThreadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "Lingo-Async-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Looks up {@code Thread.ofVirtual()} reflectively, since Lingo is compiled for Java 17.
+     *
+     * @return a factory creating virtual threads, or {@code null} if the runtime does not support them
+     */
+    private static ThreadFactory virtualThreadFactory() {
+        if (Runtime.version().feature() < 21) return null;
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, "Lingo-Async-", 1L);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            System.getLogger(Prefixes.logPrefix()).log(System.Logger.Level.WARNING,
+                    "Virtual threads are not available, falling back to platform threads", e);
+            return null;
+        }
+    }
+
+    /**
+     * Starts one virtual thread per task, but lets at most {@code permits} of them run at the same time.
+     */
+    private static final class BoundedExecutor implements Executor {
+
+        private final ThreadFactory factory;
+        private final Semaphore permits;
+        private volatile boolean shutdown;
+
+        private BoundedExecutor(ThreadFactory factory, int permits) {
+            this.factory = factory;
+            this.permits = new Semaphore(permits);
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            if (shutdown) throw new RejectedExecutionException("Lingo executor has been shut down");
+            factory.newThread(() -> {
+                permits.acquireUninterruptibly();
+                try {
+                    command.run();
+                } finally {
+                    permits.release();
+                }
+            }).start();
+        }
+
+        private void shutdown() {
+            shutdown = true;
+        }
+    }
+}
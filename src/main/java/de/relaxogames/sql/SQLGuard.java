@@ -0,0 +1,173 @@
+package de.relaxogames.sql;
+
+import de.relaxogames.Prefixes;
+import de.relaxogames.exceptions.DatabaseUnavailable;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.SQLTransientException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs database work with bounded retries and a {@link CircuitBreaker}.
+ * <p>
+ * Connection failures and other transient errors are retried up to {@code connection-timeout-try}
+ * times. Between two tries the guard waits with exponential backoff and jitter, so servers do not
+ * hammer a recovering database in lockstep. Every other {@link SQLException}, e.g. a syntax error,
+ * is thrown right away, since trying again would not change the result.
+ * </p>
+ * <p>
+ * Only connection failures count towards the breaker. Deadlocks, lock wait timeouts and query
+ * timeouts are retried as well, but the database has answered them, so they do not open it.
+ * </p>
+ * <p>
+ * Once the breaker is open, work is rejected with {@link DatabaseUnavailable} without waiting for
+ * a connection, so a database outage costs the caller nothing but the exception.
+ * </p>
+ */
+public class SQLGuard {
+
+    /**
+     * Database work running on a pooled connection.
+     *
+     * @param <T> the type of the result
+     */
+    @FunctionalInterface
+    public interface SQLCall<T> {
+
+        /**
+         * @param connection the pooled connection, which is closed by the guard
+         * @return the result of the work
+         * @throws SQLException if a database access error occurs
+         */
+        T call(Connection connection) throws SQLException;
+    }
+
+    /** MariaDB error code of {@code Lock wait timeout exceeded} */
+    private static final int ER_LOCK_WAIT_TIMEOUT = 1205;
+
+    private volatile int tries;
+    private volatile long backoffMillis;
+    private volatile long maxBackoffMillis;
+    private final CircuitBreaker breaker;
+
+    /**
+     * @param tries            the maximum amount of tries per call
+     * @param backoffMillis    the delay before the second try, doubled for every further try
+     * @param maxBackoffMillis the upper limit of the delay
+     * @param breaker          the {@link CircuitBreaker} shared by all calls
+     */
+    public SQLGuard(int tries, long backoffMillis, long maxBackoffMillis, CircuitBreaker breaker) {
+        configure(tries, backoffMillis, maxBackoffMillis);
+        this.breaker = breaker;
+        breaker.addListener((from, to) -> System.getLogger(Prefixes.logPrefix()).log(
+                to == CircuitBreaker.State.CLOSED ? System.Logger.Level.INFO : System.Logger.Level.WARNING,
+                "Database circuit breaker changed from " + from + " to " + to));
+    }
+
+    /**
+     * Changes the retry settings, also for the next try of calls that are already running.
+     *
+     * @param tries            the maximum amount of tries per call
+     * @param backoffMillis    the delay before the second try, doubled for every further try
+     * @param maxBackoffMillis the upper limit of the delay
+     */
+    public synchronized void configure(int tries, long backoffMillis, long maxBackoffMillis) {
+        this.tries = Math.max(1, tries);
+        this.backoffMillis = Math.max(0, backoffMillis);
+        this.maxBackoffMillis = Math.max(this.backoffMillis, maxBackoffMillis);
+    }
+
+    /**
+     * @return the {@link CircuitBreaker} of this guard
+     */
+    public CircuitBreaker circuitBreaker() {
+        return breaker;
+    }
+
+    /**
+     * Runs the work on a connection of the pool, retrying transient failures.
+     *
+     * @param call the database work
+     * @param <T>  the type of the result
+     * @return the result of the work
+     * @throws SQLException         if the work failed with a non-transient error, or with a deadlock or timeout on every try
+     * @throws DatabaseUnavailable  if the breaker is open or the database could not be reached on any try
+     */
+    public <T> T execute(SQLCall<T> call) throws SQLException {
+        CircuitBreaker.Permit permit = breaker.tryAcquire();
+        if (permit == null) {
+            throw new DatabaseUnavailable("The database is unavailable, the circuit breaker is open.");
+        }
+        for (int attempt = 1; ; attempt++) {
+            try (Connection connection = SQLConnector.getConnection()) {
+                T result = call.call(connection);
+                breaker.recordSuccess(permit);
+                return result;
+            } catch (SQLException e) {
+                if (!isConnectionFailure(e)) {
+                    // The database has answered, so it is reachable
+                    breaker.recordSuccess(permit);
+                    if (!isTransient(e) || attempt >= tries) throw e;
+                    permit = breaker.tryAcquire();
+                    if (permit == null) {
+                        throw new DatabaseUnavailable("The database is unavailable, the circuit breaker is open.", e);
+                    }
+                    sleep(attempt, permit);
+                    continue;
+                }
+                breaker.recordFailure(permit);
+                if (attempt >= tries || (permit = breaker.tryAcquire()) == null) {
+                    throw new DatabaseUnavailable("The database could not be reached after " + attempt + " tries.", e);
+                }
+            } catch (RuntimeException e) {
+                breaker.release(permit);
+                throw e;
+            }
+            sleep(attempt, permit);
+        }
+    }
+
+    private void sleep(int attempt, CircuitBreaker.Permit permit) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(backoff(attempt));
+        } catch (InterruptedException e) {
+            breaker.release(permit);
+            Thread.currentThread().interrupt();
+            throw new DatabaseUnavailable("Interrupted while waiting for the database.", e);
+        }
+    }
+
+    /**
+     * @return a random delay between half and the full exponential backoff of the given try
+     */
+    private long backoff(int attempt) {
+        long delay = backoffMillis << Math.min(attempt - 1, 20);
+        delay = Math.min(maxBackoffMillis, delay);
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+
+    /**
+     * @return {@code true} if the error may disappear when trying again, e.g. a lost connection, a deadlock or a timeout
+     */
+    static boolean isTransient(SQLException e) {
+        if (isConnectionFailure(e) || e instanceof SQLTransientException) return true;
+        String state = e.getSQLState();
+        // Deadlocks and serialization failures roll the transaction back, lock wait timeouts keep it
+        return (state != null && state.startsWith("40")) || e.getErrorCode() == ER_LOCK_WAIT_TIMEOUT;
+    }
+
+    /**
+     * @return {@code true} if the database could not be reached, the only errors counted by the breaker
+     */
+    static boolean isConnectionFailure(SQLException e) {
+        if (e instanceof SQLTransientConnectionException || e instanceof SQLNonTransientConnectionException
+                || e instanceof SQLRecoverableException) return true;
+        String state = e.getSQLState();
+        return state != null && state.startsWith("08");
+    }
+}
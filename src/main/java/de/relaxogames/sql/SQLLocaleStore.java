@@ -0,0 +1,60 @@
+package de.relaxogames.sql;
+
+import de.relaxogames.languages.Locale;
+import de.relaxogames.store.LocaleStore;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * The {@link LocaleStore} backed by the MariaDB table shared by all servers of the network.
+ * <p>
+ * Lookups are served from the {@link LocaleCache}, changes are written in batches by
+ * {@link LocaleWriteBehind}, and statements are guarded by the {@link CircuitBreaker}, see {@link LingoSQL}.
+ * The pool has to be connected with {@link SQLConnector#connect()} and {@link LingoSQL#initialize()}
+ * has to be called before the store is used.
+ * </p>
+ */
+public class SQLLocaleStore implements LocaleStore {
+
+    private final LingoSQL lingoSQL = new LingoSQL();
+
+    @Override
+    public Locale fetchOrCreate(UUID uuid) {
+        return lingoSQL.fetchOrCreate(uuid);
+    }
+
+    @Override
+    public Locale loadLocale(UUID uuid, Locale fallback) {
+        return lingoSQL.loadLocale(uuid, fallback);
+    }
+
+    @Override
+    public Locale cachedLocale(UUID uuid) {
+        return lingoSQL.cachedLocale(uuid);
+    }
+
+    @Override
+    public void saveLocale(UUID uuid, Locale locale) {
+        lingoSQL.queueLocale(uuid, locale);
+    }
+
+    @Override
+    public Map<UUID, Locale> preloadLocales(Collection<UUID> uuids) {
+        return lingoSQL.preloadLocales(uuids);
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return SQLConnector.conIsActive();
+    }
+
+    /**
+     * Writes all queued locale changes, see {@link LingoSQL#shutdown()}.
+     */
+    @Override
+    public void close() {
+        LingoSQL.shutdown();
+    }
+}
@@ -18,7 +18,10 @@ public enum SQLingos {
      *   <li>{@code name} – the player name (optional)</li>
      *   <li>{@code locale} – the player's language/locale (optional)</li>
      *   <li>{@code created_at} – timestamp of the first insertion (defaults to current time)</li>
+     *   <li>{@code locale_version} – the time of the last locale change in microseconds by the database clock,
+     *   see {@link PollingInvalidationChannel}</li>
      * </ul>
+     * Newer columns and indexes, e.g. {@code uuid_bin}, are added by the {@link SchemaMigrator}.
      * </p>
      */
     CREATE_LINGO_FIELD(
@@ -26,28 +29,199 @@ public enum SQLingos {
                     "    uuid       VARCHAR(36) NOT NULL PRIMARY KEY,\n" +
                     "    name       VARCHAR(32) NULL,\n" +
                     "    locale     VARCHAR(8) NULL,\n" +
-                    "    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP() NULL\n" +
+                    "    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP() NULL,\n" +
+                    "    locale_version BIGINT NOT NULL DEFAULT 0,\n" +
+                    "    INDEX idx_general_locale_version (locale_version)\n" +
                     ");"
     ),
 
     /**
-     * SQL statement for selecting a player's locale entry from the {@code general} table
-     * based on their UUID.
+     * SQL statement to add the {@code locale_version} column and its index to tables created by older versions.
+     * Requires MariaDB 10.0.2 or newer for {@code IF NOT EXISTS}.
+     */
+    ADD_LOCALE_VERSION("ALTER TABLE `general`\n" +
+            "    ADD COLUMN IF NOT EXISTS locale_version BIGINT NOT NULL DEFAULT 0,\n" +
+            "    ADD INDEX IF NOT EXISTS idx_general_locale_version (locale_version);"),
+
+    /**
+     * SQL statement to create the table recording the applied {@link SchemaMigrator} versions.
+     */
+    CREATE_SCHEMA_TABLE("CREATE TABLE IF NOT EXISTS `lingo_schema` (\n" +
+            "    version     INT          NOT NULL PRIMARY KEY,\n" +
+            "    description VARCHAR(200) NOT NULL,\n" +
+            "    applied_at  TIMESTAMP    DEFAULT CURRENT_TIMESTAMP() NOT NULL\n" +
+            ");"),
+
+    /**
+     * SQL statement for selecting all applied schema versions.
+     */
+    SELECT_SCHEMA_VERSIONS("SELECT version FROM `lingo_schema`;"),
+
+    /**
+     * SQL statement for recording an applied schema version.
+     * <p>
+     * The version and its description are provided as parameters.
+     * </p>
+     */
+    INSERT_SCHEMA_VERSION("INSERT IGNORE INTO `lingo_schema` (version, description) VALUES (?, ?);"),
+
+    /**
+     * SQL statement for acquiring the named lock that serializes migrations of several servers.
+     * Returns {@code 1} once the lock is held, the timeout in seconds is provided as a parameter.
+     */
+    LOCK_SCHEMA("SELECT GET_LOCK('lingo_schema', ?) AS locked;"),
+
+    /**
+     * SQL statement for releasing the lock acquired by {@link #LOCK_SCHEMA}.
+     */
+    UNLOCK_SCHEMA("SELECT RELEASE_LOCK('lingo_schema');"),
+
+    /**
+     * SQL statement to add the {@code uuid_bin} column, the UUID as 16 bytes, and its index.
+     * <p>
+     * The column is nullable, so adding it does not rebuild the table, and the index is built
+     * without blocking writes. The {@code uuid} column stays the primary key, since other systems
+     * share the table. The column is kept in sync by {@link #CREATE_UUID_BIN_INSERT_TRIGGER} and
+     * {@link #CREATE_UUID_BIN_UPDATE_TRIGGER}.
+     * </p>
+     */
+    ADD_UUID_BIN("ALTER TABLE `general`\n" +
+            "    ADD COLUMN IF NOT EXISTS uuid_bin BINARY(16) NULL,\n" +
+            "    ADD UNIQUE INDEX IF NOT EXISTS uk_general_uuid_bin (uuid_bin),\n" +
+            "    LOCK = NONE;"),
+
+    /**
+     * SQL statement to create the trigger that fills {@code uuid_bin} of every inserted row from {@code uuid}.
+     * <p>
+     * Other systems sharing the table only write {@code uuid}, so their rows can still be looked up by
+     * {@code uuid_bin} alone. Lingo does not bind {@code uuid_bin} itself either.
+     * </p>
+     */
+    CREATE_UUID_BIN_INSERT_TRIGGER("CREATE TRIGGER IF NOT EXISTS trg_general_uuid_bin_insert BEFORE INSERT ON `general`\n" +
+            "FOR EACH ROW SET NEW.uuid_bin = UNHEX(REPLACE(NEW.uuid, '-', ''));"),
+
+    /**
+     * SQL statement to create the trigger that keeps {@code uuid_bin} in sync if another system changes {@code uuid}
+     * or clears {@code uuid_bin}.
+     */
+    CREATE_UUID_BIN_UPDATE_TRIGGER("CREATE TRIGGER IF NOT EXISTS trg_general_uuid_bin_update BEFORE UPDATE ON `general`\n" +
+            "FOR EACH ROW SET NEW.uuid_bin = UNHEX(REPLACE(NEW.uuid, '-', ''));"),
+
+    /**
+     * SQL statement for selecting the next chunk of primary keys for the {@code uuid_bin} backfill.
+     * <p>
+     * The last key of the previous chunk and the chunk size are provided as parameters.
+     * </p>
+     */
+    SELECT_UUID_CHUNK("SELECT uuid FROM `general` WHERE uuid > ? ORDER BY uuid LIMIT ?;"),
+
+    /**
+     * SQL statement for filling {@code uuid_bin} of all rows in a range of primary keys that do not have it yet.
+     * <p>
+     * The exclusive lower and the inclusive upper key are provided as parameters.
+     * </p>
+     */
+    BACKFILL_UUID_BIN("UPDATE `general` SET uuid_bin = UNHEX(REPLACE(uuid, '-', ''))\n" +
+            "WHERE uuid > ? AND uuid <= ? AND uuid_bin IS NULL;"),
+
+    /**
+     * SQL statement to add an index on {@code locale}, e.g. for counting the players per language.
+     */
+    ADD_LOCALE_INDEX("ALTER TABLE `general` ADD INDEX IF NOT EXISTS idx_general_locale (locale), LOCK = NONE;"),
+
+    /**
+     * SQL statement for reading the current time of the database clock in microseconds,
+     * the unit of {@code locale_version}.
+     */
+    SELECT_LOCALE_VERSION_NOW("SELECT " + SQLingos.VERSION_NOW + " AS now;"),
+
+    /**
+     * SQL statement for fetching the locale changes after a given {@code locale_version}, oldest first.
+     * <p>
+     * The version and the maximum amount of rows are provided as parameters.
+     * </p>
+     */
+    SELECT_LOCALE_CHANGES("SELECT uuid, locale, locale_version FROM `general`\n" +
+            "WHERE locale_version > ? ORDER BY locale_version LIMIT ?;"),
+
+    /**
+     * SQL statement for selecting a player's locale from the {@code general} table
+     * based on their UUID. Only the {@code locale} column is fetched.
+     * <p>
+     * The UUID is passed as 16 bytes. Every row has {@code uuid_bin}, since it is filled by a trigger.
+     * </p>
+     */
+    SELECT_LINGO_LOCALE("SELECT locale FROM `general` WHERE uuid_bin = ?;"),
+
+    /**
+     * SQL statement for selecting the locales of several players at once.
      * <p>
-     * The UUID is passed as a parameter in a prepared statement.
+     * The {@code %s} is replaced by one placeholder per UUID, see {@link #getSql(int)}.
+     * The UUIDs are passed as 16 bytes, like for {@link #SELECT_LINGO_LOCALE}.
      * </p>
      */
-    SELECT_LINGO_LOCALE("SELECT * FROM `general` WHERE uuid = ?;"),
+    SELECT_LINGO_LOCALES("SELECT uuid_bin, locale FROM `general` WHERE uuid_bin IN (%s);"),
 
     /**
      * SQL statement for updating a player's locale in the {@code general} table.
      * <p>
-     * The locale and UUID are provided as parameters in a prepared statement.
+     * The locale and the UUID as 16 bytes are provided as parameters in a prepared statement.
+     * </p>
+     */
+    UPDATE_LINGO_LOCALE("UPDATE `general` SET locale = ?, locale_version = " + SQLingos.VERSION_NOW + " WHERE uuid_bin = ?;"),
+
+    /**
+     * SQL statement for creating a player entry.
+     * <p>
+     * The UUID, the locale and the creation timestamp are provided as parameters.
+     * </p>
+     */
+    INSERT_LINGO_LOCALE("INSERT INTO `general` (uuid, name, locale, created_at, locale_version)\n" +
+            "VALUES (?, '', ?, ?, " + SQLingos.VERSION_NOW + ");"),
+
+    /**
+     * SQL statement for creating a player entry that is skipped if the entry already exists.
+     * <p>
+     * The UUID, the locale and the creation timestamp are provided as parameters.
+     * It is meant to be used as a JDBC batch, so concurrent inserts of the same player do not fail the batch.
+     * </p>
+     */
+    INSERT_IGNORE_LINGO_LOCALE("INSERT IGNORE INTO `general` (uuid, name, locale, created_at, locale_version)\n" +
+            "VALUES (?, '', ?, ?, " + SQLingos.VERSION_NOW + ");"),
+
+    /**
+     * SQL statement for writing a player's locale regardless of whether the row already exists.
+     * <p>
+     * The UUID, the locale and the creation timestamp are provided as parameters.
+     * It is meant to be used as a JDBC batch, so queued locale changes reach the database in a single round trip.
+     * </p>
+     */
+    UPSERT_LINGO_LOCALE("INSERT INTO `general` (uuid, name, locale, created_at, locale_version)\n" +
+            "VALUES (?, '', ?, ?, " + SQLingos.VERSION_NOW + ")\n" +
+            "ON DUPLICATE KEY UPDATE locale = VALUES(locale), locale_version = VALUES(locale_version);"),
+
+    /**
+     * SQL statement for fetching a player's locale and creating the player's entry if it does not exist yet.
+     * <p>
+     * The UUID, the default locale and the creation timestamp are provided as parameters.
+     * An existing locale is kept, a missing one is set to the given default. The resolved
+     * locale is returned as a result set, so the whole operation costs one round trip.
+     * Requires MariaDB 10.5 or newer for {@code RETURNING}.
      * </p>
      */
-    UPDATE_LINGO_LOCALE("UPDATE `general` SET locale = ? WHERE uuid = ?;"),
-    INSERT_LINGO_LOCALE("INSERT INTO `general` (uuid, name, locale, created_at)\n" +
-            "VALUES (?, '', ?, ?);");
+    FETCH_OR_CREATE_LINGO_ENTRY("INSERT INTO `general` (uuid, name, locale, created_at, locale_version)\n" +
+            "VALUES (?, '', ?, ?, " + SQLingos.VERSION_NOW + ")\n" +
+            "ON DUPLICATE KEY UPDATE locale_version = IF(locale IS NULL, VALUES(locale_version), locale_version),\n" +
+            "    locale = COALESCE(locale, VALUES(locale))\n" +
+            "RETURNING locale;");
+
+    /**
+     * The current time of the database clock in microseconds. All servers use the clock of the
+     * database, so the versions written by different servers are comparable. It is counted from
+     * {@code UTC_TIMESTAMP}, which does not depend on the session time zone, so the value does not
+     * jump back when daylight saving time ends.
+     */
+    private static final String VERSION_NOW = "TIMESTAMPDIFF(MICROSECOND, '1970-01-01', UTC_TIMESTAMP(6))";
 
     /** The raw SQL string associated with this enum constant. */
     private final String sql;
@@ -69,4 +243,20 @@ public enum SQLingos {
     public String getSql() {
         return sql;
     }
+
+    /**
+     * Returns the SQL statement with its {@code %s} (or every {@code %1$s}) replaced by the given amount of
+     * comma separated placeholders, e.g. {@code ?, ?, ?} for three parameters.
+     *
+     * @param parameters the amount of placeholders
+     * @return the SQL query or command as a string
+     */
+    public String getSql(int parameters) {
+        StringBuilder placeholders = new StringBuilder(parameters * 3);
+        for (int i = 0; i < parameters; i++) {
+            if (i > 0) placeholders.append(", ");
+            placeholders.append('?');
+        }
+        return String.format(sql, placeholders);
+    }
 }
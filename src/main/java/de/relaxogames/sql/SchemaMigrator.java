@@ -0,0 +1,180 @@
+package de.relaxogames.sql;
+
+import de.relaxogames.Prefixes;
+import de.relaxogames.metrics.LingoMetrics;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Brings the database schema of Lingo up to date.
+ * <p>
+ * Every change of the schema is a numbered migration. The applied versions are recorded in the
+ * {@code lingo_schema} table, so every migration runs exactly once per database, in order. Several
+ * servers starting at the same time are serialized by a named database lock. All migrations are
+ * idempotent, so a migration interrupted before it was recorded is simply applied again.
+ * </p>
+ * <p>
+ * Migrations must not block the {@code general} table, since other systems share it: columns and
+ * indexes are added without locking, and existing rows are rewritten in small chunks of
+ * {@value #BACKFILL_CHUNK_SIZE} rows, each in its own short transaction.
+ * </p>
+ */
+public final class SchemaMigrator {
+
+    private static final int BACKFILL_CHUNK_SIZE = 1000;
+    private static final int LOCK_TIMEOUT_SECONDS = 300;
+
+    /**
+     * A single schema change.
+     */
+    @FunctionalInterface
+    private interface Step {
+        void apply(Connection connection) throws SQLException;
+
+        default Step andThen(Step next) {
+            return connection -> {
+                apply(connection);
+                next.apply(connection);
+            };
+        }
+    }
+
+    private static final class Migration {
+        private final int version;
+        private final String description;
+        private final Step step;
+
+        private Migration(int version, String description, Step step) {
+            this.version = version;
+            this.description = description;
+            this.step = step;
+        }
+    }
+
+    private static final List<Migration> MIGRATIONS = List.of(
+            new Migration(1, "Create the general table", statement(SQLingos.CREATE_LINGO_FIELD)),
+            new Migration(2, "Add the locale version", statement(SQLingos.ADD_LOCALE_VERSION)),
+            new Migration(3, "Add the binary uuid column", statement(SQLingos.ADD_UUID_BIN)),
+            // The triggers come before the backfill, so no row written in between is missed
+            new Migration(4, "Fill the binary uuid of new rows", statement(SQLingos.CREATE_UUID_BIN_INSERT_TRIGGER)
+                    .andThen(statement(SQLingos.CREATE_UUID_BIN_UPDATE_TRIGGER))),
+            new Migration(5, "Fill the binary uuid of existing rows", SchemaMigrator::backfillUuids),
+            new Migration(6, "Add the locale index", statement(SQLingos.ADD_LOCALE_INDEX))
+    );
+
+    private SchemaMigrator() {
+    }
+
+    /**
+     * @return the schema version after all migrations have been applied
+     */
+    public static int latestVersion() {
+        return MIGRATIONS.get(MIGRATIONS.size() - 1).version;
+    }
+
+    /**
+     * Applies all migrations that have not been applied to the database yet.
+     *
+     * @param connection the connection to migrate with
+     * @return the amount of applied migrations
+     * @throws SQLException if a migration fails; the migrations applied before stay recorded
+     */
+    public static int migrate(Connection connection) throws SQLException {
+        execute(connection, SQLingos.CREATE_SCHEMA_TABLE);
+        lock(connection);
+        try {
+            Set<Integer> applied = appliedVersions(connection);
+            int count = 0;
+            for (Migration migration : MIGRATIONS) {
+                if (applied.contains(migration.version)) continue;
+                System.getLogger(Prefixes.logPrefix()).log(System.Logger.Level.INFO,
+                        "Migrating the database schema to version " + migration.version + ": " + migration.description);
+                migration.step.apply(connection);
+                try (PreparedStatement pst = connection.prepareStatement(SQLingos.INSERT_SCHEMA_VERSION.getSql())) {
+                    pst.setInt(1, migration.version);
+                    pst.setString(2, migration.description);
+                    pst.execute();
+                }
+                count++;
+            }
+            return count;
+        } finally {
+            try (PreparedStatement pst = connection.prepareStatement(SQLingos.UNLOCK_SCHEMA.getSql())) {
+                pst.executeQuery().close();
+            }
+        }
+    }
+
+    /**
+     * Fills {@code uuid_bin} of all rows that do not have it yet.
+     * <p>
+     * The table is walked along its primary key in chunks, so every chunk is a short range update
+     * and the walk ends even if some rows contain UUIDs that cannot be converted.
+     * </p>
+     *
+     * @param connection the connection to update with
+     * @return the amount of updated rows
+     * @throws SQLException if a chunk cannot be updated
+     */
+    public static int backfillUuids(Connection connection) throws SQLException {
+        int updated = 0;
+        String last = "";
+        try (PreparedStatement select = connection.prepareStatement(SQLingos.SELECT_UUID_CHUNK.getSql());
+             PreparedStatement update = connection.prepareStatement(SQLingos.BACKFILL_UUID_BIN.getSql())) {
+            while (true) {
+                String upper = null;
+                select.setString(1, last);
+                select.setInt(2, BACKFILL_CHUNK_SIZE);
+                try (ResultSet set = select.executeQuery()) {
+                    while (set.next()) upper = set.getString("uuid");
+                }
+                if (upper == null) return updated;
+                long start = LingoMetrics.start();
+                update.setString(1, last);
+                update.setString(2, upper);
+                updated += update.executeUpdate();
+                LingoMetrics.recordQuery(SQLingos.BACKFILL_UUID_BIN, start);
+                last = upper;
+            }
+        }
+    }
+
+    private static void lock(Connection connection) throws SQLException {
+        try (PreparedStatement pst = connection.prepareStatement(SQLingos.LOCK_SCHEMA.getSql())) {
+            pst.setInt(1, LOCK_TIMEOUT_SECONDS);
+            try (ResultSet set = pst.executeQuery()) {
+                if (!set.next() || set.getInt("locked") != 1) {
+                    throw new SQLException("Another server is still migrating the database schema");
+                }
+            }
+        }
+    }
+
+    private static Set<Integer> appliedVersions(Connection connection) throws SQLException {
+        Set<Integer> versions = new HashSet<>();
+        try (PreparedStatement pst = connection.prepareStatement(SQLingos.SELECT_SCHEMA_VERSIONS.getSql());
+             ResultSet set = pst.executeQuery()) {
+            while (set.next()) versions.add(set.getInt("version"));
+        }
+        return versions;
+    }
+
+    private static Step statement(SQLingos sql) {
+        return connection -> execute(connection, sql);
+    }
+
+    private static void execute(Connection connection, SQLingos sql) throws SQLException {
+        long start = LingoMetrics.start();
+        try (Statement st = connection.createStatement()) {
+            st.execute(sql.getSql());
+        }
+        LingoMetrics.recordQuery(sql, start);
+    }
+}
@@ -0,0 +1,43 @@
+package de.relaxogames.sql;
+
+import java.util.UUID;
+
+/**
+ * Converts {@link UUID}s to the 16 bytes stored in the {@code uuid_bin} column and back.
+ * <p>
+ * The bytes are the big-endian most significant bits followed by the least significant bits,
+ * which is the same as {@code UNHEX(REPLACE(uuid, '-', ''))} in MariaDB.
+ * </p>
+ */
+final class UUIDBytes {
+
+    private UUIDBytes() {
+    }
+
+    static byte[] toBytes(UUID uuid) {
+        byte[] bytes = new byte[16];
+        write(uuid.getMostSignificantBits(), bytes, 0);
+        write(uuid.getLeastSignificantBits(), bytes, 8);
+        return bytes;
+    }
+
+    static UUID fromBytes(byte[] bytes) {
+        if (bytes == null || bytes.length != 16) throw new IllegalArgumentException("A UUID needs exactly 16 bytes");
+        return new UUID(read(bytes, 0), read(bytes, 8));
+    }
+
+    private static void write(long value, byte[] bytes, int offset) {
+        for (int i = 7; i >= 0; i--) {
+            bytes[offset + i] = (byte) value;
+            value >>>= 8;
+        }
+    }
+
+    private static long read(byte[] bytes, int offset) {
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | (bytes[offset + i] & 0xFF);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,253 @@
+package de.relaxogames.store;
+
+import de.relaxogames.Prefixes;
+import de.relaxogames.languages.Locale;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A {@link LocaleStore} backed by an append-only log file, for servers without a database.
+ * <p>
+ * Every change appends a line {@code <uuid> <ISO-Short>} to the file, so a change costs a single
+ * small write and never rewrites existing data. On start the log is replayed into memory, where
+ * all lookups are served from. The last line of a player wins, an incomplete last line left by a
+ * crash is cut off before new lines are appended.
+ * </p>
+ * <p>
+ * The log is read before the language files are loaded, so ISO-Shorts that are not known yet are
+ * kept as they are and resolved on the first lookup of the player. Until their language file is
+ * loaded, they fall back to the default language without being overwritten.
+ * </p>
+ * <p>
+ * Once most lines of the log are outdated, it is compacted on a background thread: the current
+ * locales are written to a new file, which then atomically replaces the log. Changes made in the
+ * meantime are appended to the new file before the swap, saving is only blocked for the swap itself.
+ * </p>
+ */
+public class FileLocaleStore implements LocaleStore {
+
+    private static final int COMPACT_MIN_RECORDS = 1000;
+
+    private final Path file;
+    private final Map<UUID, Locale> locales = new ConcurrentHashMap<>();
+    private final Map<UUID, String> unresolved = new ConcurrentHashMap<>();
+    private final AtomicBoolean compacting = new AtomicBoolean();
+    private Writer writer;
+    private int records;
+    /**
+     * The lines appended while a compaction writes the new file, or {@code null} if none is running
+     */
+    private List<String> appendedDuringCompaction;
+
+    /**
+     * Opens the log and replays it. The file is created if it does not exist.
+     *
+     * @param file the log file
+     * @throws IOException if the file cannot be read or created
+     */
+    public FileLocaleStore(File file) throws IOException {
+        this.file = file.toPath();
+        Path parent = this.file.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+        if (Files.exists(this.file)) replay();
+        writer = open();
+        if (needsCompaction()) compact();
+    }
+
+    private void replay() throws IOException {
+        byte[] data = Files.readAllBytes(this.file);
+        int end = data.length;
+        while (end > 0 && data[end - 1] != '\n') end--;
+        if (end < data.length) {
+            // The last line was cut off by a crash, the next append would otherwise continue it
+            try (FileChannel channel = FileChannel.open(this.file, StandardOpenOption.WRITE)) {
+                channel.truncate(end);
+            }
+        }
+        for (String line : new String(data, 0, end, StandardCharsets.UTF_8).split("\n")) {
+            int separator = line.indexOf(' ');
+            if (separator <= 0 || separator == line.length() - 1) continue;
+            UUID uuid;
+            try {
+                uuid = UUID.fromString(line.substring(0, separator));
+            } catch (IllegalArgumentException ignored) {
+                continue;
+            }
+            String iso = line.substring(separator + 1);
+            Locale locale = Locale.find(iso);
+            if (locale != null) {
+                locales.put(uuid, locale);
+                unresolved.remove(uuid);
+            } else {
+                locales.remove(uuid);
+                unresolved.put(uuid, iso);
+            }
+            records++;
+        }
+    }
+
+    /**
+     * @return the stored locale of the player, or {@code null} if there is none
+     */
+    private Locale stored(UUID uuid) {
+        Locale locale = locales.get(uuid);
+        if (locale != null || unresolved.isEmpty()) return locale;
+        String iso = unresolved.get(uuid);
+        if (iso == null) return null;
+        locale = Locale.find(iso);
+        if (locale == null) return Locale.convertStringToLanguage(iso);
+        Locale current = locales.putIfAbsent(uuid, locale);
+        unresolved.remove(uuid, iso);
+        return current != null ? current : locale;
+    }
+
+    @Override
+    public Locale fetchOrCreate(UUID uuid) {
+        Locale locale = stored(uuid);
+        if (locale != null) return locale;
+        synchronized (this) {
+            locale = stored(uuid);
+            if (locale != null) return locale;
+            saveLocale(uuid, Locale.system_default);
+            return Locale.system_default;
+        }
+    }
+
+    @Override
+    public Locale loadLocale(UUID uuid, Locale fallback) {
+        Locale locale = stored(uuid);
+        return locale != null ? locale : Locale.system_default;
+    }
+
+    @Override
+    public Locale cachedLocale(UUID uuid) {
+        return stored(uuid);
+    }
+
+    @Override
+    public synchronized void saveLocale(UUID uuid, Locale locale) {
+        boolean pending = unresolved.remove(uuid) != null;
+        if (locales.put(uuid, locale) == locale && !pending) return;
+        try {
+            append(uuid, locale);
+            if (needsCompaction()) compactInBackground();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write the locale of " + uuid + " to " + file, e);
+        }
+    }
+
+    /**
+     * @return the amount of stored players
+     */
+    public int size() {
+        return locales.size() + unresolved.size();
+    }
+
+    /**
+     * Rewrites the log so it contains only the current locale of every player.
+     * Saving locales stays possible while the new log is written.
+     *
+     * @throws IOException if the new log cannot be written; the previous log stays in place
+     */
+    public void compact() throws IOException {
+        Map<UUID, String> snapshot;
+        synchronized (this) {
+            if (writer == null || appendedDuringCompaction != null) return;
+            snapshot = new HashMap<>(size() * 4 / 3 + 1);
+            for (Map.Entry<UUID, String> entry : unresolved.entrySet()) snapshot.put(entry.getKey(), entry.getValue());
+            for (Map.Entry<UUID, Locale> entry : locales.entrySet()) snapshot.put(entry.getKey(), entry.getValue().getISO());
+            appendedDuringCompaction = new ArrayList<>();
+        }
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            try (Writer compacted = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                for (Map.Entry<UUID, String> entry : snapshot.entrySet()) {
+                    compacted.write(entry.getKey() + " " + entry.getValue() + "\n");
+                }
+            }
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+            synchronized (this) {
+                if (writer == null) {
+                    Files.deleteIfExists(temp);
+                    return;
+                }
+                try (Writer tail = Files.newBufferedWriter(temp, StandardCharsets.UTF_8, StandardOpenOption.APPEND)) {
+                    for (String line : appendedDuringCompaction) tail.write(line);
+                }
+                writer.close();
+                try {
+                    Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    records = snapshot.size() + appendedDuringCompaction.size();
+                } finally {
+                    writer = open();
+                }
+            }
+        } finally {
+            synchronized (this) {
+                appendedDuringCompaction = null;
+            }
+        }
+    }
+
+    private void compactInBackground() {
+        if (!compacting.compareAndSet(false, true)) return;
+        Thread thread = new Thread(() -> {
+            try {
+                compact();
+            } catch (IOException e) {
+                System.getLogger(Prefixes.logPrefix()).log(System.Logger.Level.WARNING, "Could not compact " + file, e);
+            } finally {
+                compacting.set(false);
+            }
+        }, "Lingo-LocaleStore-Compaction");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (writer == null) return;
+        try {
+            writer.close();
+        } catch (IOException e) {
+            System.getLogger(Prefixes.logPrefix()).log(System.Logger.Level.WARNING, "Could not close " + file, e);
+        }
+        writer = null;
+    }
+
+    private void append(UUID uuid, Locale locale) throws IOException {
+        if (writer == null) throw new IOException("The locale store has been closed");
+        String line = uuid + " " + locale.getISO() + "\n";
+        writer.write(line);
+        // Hand the line over to the operating system, so it survives a crash of the server
+        writer.flush();
+        records++;
+        if (appendedDuringCompaction != null) appendedDuringCompaction.add(line);
+    }
+
+    private boolean needsCompaction() {
+        return records >= COMPACT_MIN_RECORDS && records > size() * 2;
+    }
+
+    private Writer open() throws IOException {
+        return Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+}
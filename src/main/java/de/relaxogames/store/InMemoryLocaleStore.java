@@ -0,0 +1,47 @@
+package de.relaxogames.store;
+
+import de.relaxogames.languages.Locale;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A {@link LocaleStore} that keeps the locales in memory only.
+ * <p>
+ * Nothing is persisted, so every player starts with {@link Locale#system_default} after a restart.
+ * Useful for small standalone servers without a database, for tests and to benchmark the
+ * locale path without any I/O.
+ * </p>
+ */
+public class InMemoryLocaleStore implements LocaleStore {
+
+    private final Map<UUID, Locale> locales = new ConcurrentHashMap<>();
+
+    @Override
+    public Locale fetchOrCreate(UUID uuid) {
+        return locales.computeIfAbsent(uuid, ignored -> Locale.system_default);
+    }
+
+    @Override
+    public Locale loadLocale(UUID uuid, Locale fallback) {
+        return locales.getOrDefault(uuid, Locale.system_default);
+    }
+
+    @Override
+    public Locale cachedLocale(UUID uuid) {
+        return locales.get(uuid);
+    }
+
+    @Override
+    public void saveLocale(UUID uuid, Locale locale) {
+        locales.put(uuid, locale);
+    }
+
+    /**
+     * @return the amount of stored players
+     */
+    public int size() {
+        return locales.size();
+    }
+}
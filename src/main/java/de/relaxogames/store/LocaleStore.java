@@ -0,0 +1,92 @@
+package de.relaxogames.store;
+
+import de.relaxogames.languages.Locale;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Stores the {@link Locale} of every player.
+ * <p>
+ * {@link de.relaxogames.api.interfaces.LingoPlayer} resolves and changes locales only through this
+ * interface, so the storage can be chosen per server with {@code locale-store}:
+ * <ul>
+ *     <li>{@code sql} – the shared MariaDB table, see {@link de.relaxogames.sql.SQLLocaleStore}</li>
+ *     <li>{@code file} – an append-only log in the plugin folder, see {@link FileLocaleStore}</li>
+ *     <li>{@code memory} – nothing is persisted, see {@link InMemoryLocaleStore}</li>
+ * </ul>
+ * A custom store can be set with {@link de.relaxogames.api.Lingo#setLocaleStore(LocaleStore)}.
+ * </p>
+ * <p>
+ * Implementations have to be thread-safe. Only {@link #fetchOrCreate(UUID)} and
+ * {@link #loadLocale(UUID, Locale)} may block, {@link #cachedLocale(UUID)} and
+ * {@link #saveLocale(UUID, Locale)} are called on the main thread.
+ * </p>
+ */
+public interface LocaleStore extends AutoCloseable {
+
+    /**
+     * Resolves the locale of a player and creates the player's entry with
+     * {@link Locale#system_default} if it does not exist yet.
+     *
+     * @param uuid the unique identifier of the player
+     * @return the {@link Locale} of the player
+     */
+    Locale fetchOrCreate(UUID uuid);
+
+    /**
+     * Loads the stored locale of a player.
+     *
+     * @param uuid     the unique identifier of the player
+     * @param fallback the {@link Locale} returned if the store is temporarily unavailable
+     * @return the stored {@link Locale}, or {@link Locale#system_default} if the player is unknown
+     */
+    Locale loadLocale(UUID uuid, Locale fallback);
+
+    /**
+     * Returns the locale of a player if it is known without blocking.
+     *
+     * @param uuid the unique identifier of the player
+     * @return the {@link Locale}, or {@code null} if it would have to be loaded
+     */
+    Locale cachedLocale(UUID uuid);
+
+    /**
+     * Changes the locale of a player. The change may be written in the background,
+     * but has to be visible to {@link #cachedLocale(UUID)} right away.
+     *
+     * @param uuid   the unique identifier of the player
+     * @param locale the new {@link Locale} of the player
+     */
+    void saveLocale(UUID uuid, Locale locale);
+
+    /**
+     * Resolves the locales of many players at once, creating missing entries.
+     *
+     * @param uuids the unique identifiers of the players
+     * @return the {@link Locale} of every given player
+     */
+    default Map<UUID, Locale> preloadLocales(Collection<UUID> uuids) {
+        Map<UUID, Locale> locales = new HashMap<>(uuids.size() * 2);
+        for (UUID uuid : uuids) {
+            locales.put(uuid, fetchOrCreate(uuid));
+        }
+        return locales;
+    }
+
+    /**
+     * @return true -- if the store can currently be used
+     */
+    default boolean isAvailable() {
+        return true;
+    }
+
+    /**
+     * Writes all pending changes and releases the resources of the store.
+     */
+    @Override
+    default void close() {
+    }
+}